@@ -0,0 +1,99 @@
+package com.sylphcorps.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of an article and of a page of articles, with the
+ * ObjectMapper configured the way Spring Boot configures the MVC one.
+ *
+ * contentChars covers a short news item, a typical story and a long read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArticleSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String[] WORDS = {
+            "the", "council", "said", "on", "Tuesday", "that", "budget", "would", "include", "new",
+            "funding", "for", "schools", "and", "roads", "after", "months", "of", "debate", "residents",
+            "market", "analysts", "expect", "growth", "to", "slow", "this", "year", "\"quoted\"", "café"
+    };
+
+    @Param({"2000", "8000", "32000"})
+    private int contentChars;
+
+    private ObjectMapper objectMapper;
+    private Article article;
+    private Page<Article> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Random random = new Random(42);
+        List<Article> articles = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            articles.add(article(i, random));
+        }
+        article = articles.get(0);
+        page = new PageImpl<>(articles, PageRequest.of(0, PAGE_SIZE, Sort.by("createdAt").descending()), 1_000);
+    }
+
+    @Benchmark
+    public byte[] article() throws Exception {
+        return objectMapper.writeValueAsBytes(article);
+    }
+
+    @Benchmark
+    public byte[] page() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private Article article(long id, Random random) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle("City Council Approves Budget After Late-Night Session " + id);
+        article.setSlug("city-council-approves-budget-after-late-night-session-" + id);
+        article.setExcerpt(text(random, 300));
+        article.setContent(text(random, contentChars));
+        article.setImageUrl("https://cdn.example.com/images/" + id + ".jpg");
+        article.setCategory("Politics");
+        article.setPublished(true);
+        article.setViewCount((long) random.nextInt(100_000));
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        article.setPublishedAt(now);
+        article.setCreatedAt(now);
+        article.setUpdatedAt(now);
+        return article;
+    }
+
+    private static String text(Random random, int chars) {
+        StringBuilder text = new StringBuilder(chars + 16);
+        while (text.length() < chars) {
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+            text.append(random.nextInt(12) == 0 ? ".\n\n" : " ");
+        }
+        text.setLength(chars);
+        return text.toString();
+    }
+}
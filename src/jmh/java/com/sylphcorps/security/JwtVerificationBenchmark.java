@@ -0,0 +1,82 @@
+package com.sylphcorps.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in AuthTokenFilter.
+ *
+ * legacyValidateThenParse reproduces the old flow: validateJwtToken and then
+ * getUserNameFromJwtToken, each deriving the key and building a parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "sylphcorpsSecretKey12345678901234567890";
+
+    private String token;
+    private JwtUtils uncached;
+    private JwtUtils cached;
+
+    @Setup
+    public void setUp() {
+        token = Jwts.builder()
+                .setSubject("benchmark")
+                .claim(JwtUtils.CLAIM_USER_ID, 42L)
+                .claim(JwtUtils.CLAIM_ROLE, "AUTHOR")
+                .claim(JwtUtils.CLAIM_TOKEN_VERSION, 0)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+        uncached = jwtUtils(0);
+        cached = jwtUtils(10_000);
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return uncached.parseValidClaims(token);
+    }
+
+    @Benchmark
+    public Claims cachedVerification() {
+        return cached.parseValidClaims(token);
+    }
+
+    private static JwtUtils jwtUtils(int verifiedCacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", verifiedCacheSize);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+}
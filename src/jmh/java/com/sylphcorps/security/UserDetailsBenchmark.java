@@ -0,0 +1,43 @@
+package com.sylphcorps.security;
+
+import com.sylphcorps.model.Role;
+import com.sylphcorps.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the request principal, from a loaded User at sign-in and from
+ * JWT claims on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserDetailsBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User("benchmark", "benchmark@example.com",
+                "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z9K1bY0B0sq/ZbR7zCq9RZ2a", "Bench Mark", Role.AUTHOR);
+        user.setId(42L);
+        user.setTokenVersion(3);
+    }
+
+    @Benchmark
+    public UserDetailsImpl build() {
+        return UserDetailsImpl.build(user);
+    }
+
+    @Benchmark
+    public UserDetailsImpl fromClaims() {
+        return UserDetailsImpl.fromClaims(42L, "benchmark", Role.AUTHOR, 3);
+    }
+}
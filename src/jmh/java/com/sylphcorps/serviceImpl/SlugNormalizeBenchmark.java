@@ -0,0 +1,34 @@
+package com.sylphcorps.serviceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a title into its base slug, run on every create, update
+ * and import line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SlugNormalizeBenchmark {
+
+    @Param({
+            "Breaking News",
+            "City Council Approves 2025 Budget After Late-Night Session",
+            "  What's Next?  Analysts Weigh In -- On the   Market's \"Wild\" Week!!  ",
+            "Café Owners Say Rents in São Paulo Have Doubled Since 2019"
+    })
+    private String title;
+
+    @Benchmark
+    public String normalize() {
+        return SlugAllocator.normalize(title);
+    }
+}
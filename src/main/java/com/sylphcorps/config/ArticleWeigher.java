@@ -0,0 +1,56 @@
+package com.sylphcorps.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.sylphcorps.model.Article;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+
+import java.io.Serializable;
+
+/**
+ * Weighs cached articles by their approximate size in bytes, so caches of
+ * articles are bounded by memory rather than entry count: one long article
+ * costs as much as many short ones.
+ *
+ * Handles both the Article objects of the articlesBySlug cache and the
+ * second-level cache entries of the articles region (named as the region's
+ * weigher in application.conf), which hold the entity's disassembled state.
+ */
+public class ArticleWeigher implements Weigher<Object, Object> {
+
+    // Everything but the text: object headers, the other columns, the map entry
+    private static final int ENTRY_OVERHEAD = 512;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        // Strings take up to two bytes per character
+        long bytes = ENTRY_OVERHEAD + 2L * textLength(value);
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long textLength(Object value) {
+        if (value instanceof Article) {
+            Article article = (Article) value;
+            return length(article.getTitle()) + length(article.getSlug()) + length(article.getExcerpt())
+                    + length(article.getContent()) + length(article.getImageUrl()) + length(article.getCategory());
+        }
+        if (value instanceof AbstractReadWriteAccess.Item) {
+            return textLength(((AbstractReadWriteAccess.Item) value).getValue());
+        }
+        if (value instanceof CacheEntry) {
+            long length = 0;
+            for (Serializable column : ((CacheEntry) value).getDisassembledState()) {
+                if (column instanceof String) {
+                    length += ((String) column).length();
+                }
+            }
+            return length;
+        }
+        // Soft locks held during an update carry no state
+        return 0;
+    }
+
+    private static long length(String text) {
+        return text == null ? 0 : text.length();
+    }
+}
@@ -0,0 +1,39 @@
+package com.sylphcorps.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String ARTICLES_BY_SLUG = "articlesBySlug";
+    public static final String TOKEN_VERSIONS = "tokenVersions";
+
+    @Value("${app.cache.articles-by-slug.spec}")
+    private String articlesBySlugSpec;
+
+    @Value("${app.cache.token-versions.spec}")
+    private String tokenVersionsSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        // No caches beyond the ones registered here
+        cacheManager.setCacheNames(List.of());
+        // Bounded by maximumWeight: articles are weighed by their content
+        cacheManager.registerCustomCache(ARTICLES_BY_SLUG,
+                Caffeine.from(articlesBySlugSpec).weigher(new ArticleWeigher()).build());
+        cacheManager.registerCustomCache(TOKEN_VERSIONS, Caffeine.from(tokenVersionsSpec).build());
+
+        // Defer puts and evictions until the surrounding transaction commits
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
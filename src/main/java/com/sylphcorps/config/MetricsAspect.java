@@ -0,0 +1,84 @@
+package com.sylphcorps.config;
+
+import com.sylphcorps.utils.EndpointTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public call into the article and user services, the slug
+ * allocator and the repositories.
+ *
+ * Service calls are recorded as app.service.calls and repository calls as
+ * app.repository.queries, tagged with class, method, the endpoint being
+ * served (see EndpointTags) and the exception class, "none" on success.
+ * Percentiles and histograms are configured per metric name under
+ * management.metrics.distribution.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    public static final String SERVICE_METRIC = "app.service.calls";
+    public static final String REPOSITORY_METRIC = "app.repository.queries";
+
+    private static final String APP_PACKAGE = "com.sylphcorps.";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Repository proxy class -> the application interface it implements
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.sylphcorps.serviceImpl.ArticleService.*(..))"
+            + " || execution(public * com.sylphcorps.serviceImpl.UserService.*(..))"
+            + " || execution(public * com.sylphcorps.serviceImpl.SlugAllocator.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_METRIC, joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint);
+    }
+
+    // Matched on the bean type, since inherited JpaRepository methods are
+    // declared outside this application
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_METRIC, repositoryName(joinPoint.getThis()), joinPoint);
+    }
+
+    private Object time(String metric, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Timer.builder(metric)
+                    .tag("class", className)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("endpoint", EndpointTags.current())
+                    .tag("exception", exception)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith(APP_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
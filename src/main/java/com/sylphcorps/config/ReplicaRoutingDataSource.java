@@ -0,0 +1,144 @@
+package com.sylphcorps.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything
+ * else to the primary.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy, so the connection is
+ * fetched at the first statement, once the transaction's read-only flag is
+ * known. A read goes to the primary instead when:
+ * - it is not in a read-only transaction (reads that must be current, like
+ *   slug allocation, run in a read-write transaction for this reason);
+ * - it runs inside readFromPrimary. Reads whose result outlives the request
+ *   (the slug cache, second-level and query cache entries, feed snapshots)
+ *   use it: a stale row read from a lagging replica would otherwise be
+ *   cached and served to everyone after the write's own eviction;
+ * - the caller committed a write within the read-your-writes window, so
+ *   replication lag cannot hide their own change;
+ * - the replica refused a connection recently. It is retried after
+ *   retry-after.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryAfterMs;
+
+    // Principals who committed a write within the read-your-writes window
+    private final Cache<String, Boolean> recentWriters;
+
+    private volatile long replicaDownUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites, Duration retryAfter) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterMs = retryAfter.toMillis();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .build();
+    }
+
+    /**
+     * Runs the read with any connection it fetches taken from the primary,
+     * even in a read-only transaction. The connection is fetched at the
+     * first statement, so this must wrap that statement, not only the
+     * transaction.
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_READS.remove();
+            } else {
+                PRIMARY_READS.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                // Hikari reports a pool that cannot start as a RuntimeException
+                replicaDownUntil = System.currentTimeMillis() + retryAfterMs;
+                logger.warn("Replica unavailable, reading from the primary for {} ms: {}", retryAfterMs, e.getMessage());
+            }
+        } else {
+            recordWriteOnCommit();
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials are per pool here; route as usual
+        return getConnection();
+    }
+
+    private boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        if (PRIMARY_READS.get() != null) {
+            return false;
+        }
+        if (System.currentTimeMillis() < replicaDownUntil) {
+            return false;
+        }
+        String principal = currentPrincipal();
+        return principal == null || recentWriters.getIfPresent(principal) == null;
+    }
+
+    private void recordWriteOnCommit() {
+        // Read-only transactions sent to the primary write nothing
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String principal = currentPrincipal();
+        if (principal == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(principal, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,62 @@
+package com.sylphcorps.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Logs how long startup took and its slowest steps (bean creation, context
+ * refresh phases, JPA and Flyway initialisation) once the application is
+ * ready. Steps are only recorded when SylphcorpsApplication.main installs a
+ * BufferingApplicationStartup; the full timeline is served by
+ * /actuator/startup.
+ *
+ * Step durations include their nested steps, so a slow bean also makes the
+ * beans that depend on it look slow; read the report from the bottom up.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+    @Value("${app.startup.report-size:20}")
+    private int reportSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup) || reportSize <= 0) {
+            return;
+        }
+        List<TimelineEvent> slowest = ((BufferingApplicationStartup) startup).getBufferedTimeline().getEvents().stream()
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(reportSize)
+                .collect(Collectors.toList());
+
+        StringBuilder report = new StringBuilder("Started in ")
+                .append(event.getTimeTaken().toMillis()).append(" ms; slowest steps:");
+        for (TimelineEvent step : slowest) {
+            report.append(String.format("%n  %6d ms  %s %s", step.getDuration().toMillis(),
+                    step.getStartupStep().getName(), tags(step.getStartupStep())));
+        }
+        logger.info(report.toString());
+    }
+
+    private static String tags(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -1,49 +0,0 @@
-package com.sylphcorps.config;
-
-import io.swagger.v3.oas.models.OpenAPI;
-import io.swagger.v3.oas.models.info.Info;
-import io.swagger.v3.oas.models.info.Contact;
-import io.swagger.v3.oas.models.info.License;
-import io.swagger.v3.oas.models.servers.Server;
-import io.swagger.v3.oas.models.security.SecurityRequirement;
-import io.swagger.v3.oas.models.security.SecurityScheme;
-import io.swagger.v3.oas.models.Components;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-import java.util.List;
-
-@Configuration
-public class SwaggerConfig {
-
-    @Bean
-    public OpenAPI customOpenAPI() {
-        return new OpenAPI()
-                .info(new Info()
-                        .title("SylphCorps API")
-                        .version("1.0.0")
-                        .description("API documentation for SylphCorps application")
-                        .contact(new Contact()
-                                .name("SylphCorps Team")
-                                .email("support@sylphcorps.com")
-                                .url("https://sylphcorps.com"))
-                        .license(new License()
-                                .name("MIT License")
-                                .url("https://opensource.org/licenses/MIT")))
-                .servers(List.of(
-                        new Server()
-                                .url("http://localhost:8085")
-                                .description("Development server"),
-                        new Server()
-                                .url("https://api.sylphcorps.com")
-                                .description("Production server")))
-                .components(new Components()
-                        .addSecuritySchemes("bearerAuth", new SecurityScheme()
-                                .type(SecurityScheme.Type.HTTP)
-                                .scheme("bearer")
-                                .bearerFormat("JWT")
-                                .description("JWT Authentication")))
-                .addSecurityItem(new SecurityRequirement()
-                        .addList("bearerAuth"));
-    }
-}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.sylphcorps.controller;
+
+import com.sylphcorps.dto.BulkSignupRequest;
+import com.sylphcorps.serviceImpl.ExportService;
+import com.sylphcorps.serviceImpl.StatisticsService;
+import com.sylphcorps.serviceImpl.UserProvisioningService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Value("${app.export.async-timeout-ms:3600000}")
+    private long exportTimeoutMs;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalArticles", statisticsService.getTotalArticleCount());
+        stats.put("publishedArticles", statisticsService.getPublishedArticleCount());
+        stats.put("publishedArticlesByCategory", statisticsService.getPublishedArticleCountsByCategory());
+        stats.put("totalUsers", statisticsService.getUserCount());
+        stats.put("usersByRole", statisticsService.getUserCountsByRole());
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/users/bulk")
+    public ResponseEntity<Map<String, Object>> createUsers(@Valid @RequestBody BulkSignupRequest request) {
+        List<String> skipped = userProvisioningService.createUsers(request.getUsers());
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("requested", request.getUsers().size());
+        response.put("created", request.getUsers().size() - skipped.size());
+        response.put("skipped", skipped);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export/articles")
+    public ResponseEntity<StreamingResponseBody> exportArticles(@RequestParam(defaultValue = "ndjson") String format,
+                                                                HttpServletRequest request) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return exportResponse("articles", exportFormat, request, out -> exportService.exportArticles(exportFormat, out));
+    }
+
+    @GetMapping("/export/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                             HttpServletRequest request) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return exportResponse("users", exportFormat, request, out -> exportService.exportUsers(exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportService.Format format,
+                                                                 HttpServletRequest request, StreamingResponseBody body) {
+        // Exports stream for as long as the table takes, so they get a long
+        // timeout of their own; other async requests keep the default. The
+        // async context exists once the body starts writing.
+        StreamingResponseBody timed = out -> {
+            request.getAsyncContext().setTimeout(exportTimeoutMs);
+            body.writeTo(out);
+        };
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(timed);
+    }
+}
@@ -2,125 +2,277 @@
 package com.sylphcorps.controller;
 
 import com.sylphcorps.dto.ArticleDTO;
+import com.sylphcorps.dto.ArticleSummary;
+import com.sylphcorps.dto.ArticleVersion;
+import com.sylphcorps.dto.CursorPage;
+import com.sylphcorps.exception.GlobalExceptionHandler.BadRequestException;
 import com.sylphcorps.model.Article;
 import com.sylphcorps.model.User;
 import com.sylphcorps.security.UserDetailsImpl;
+import com.sylphcorps.serviceImpl.ArticleImportService;
 import com.sylphcorps.serviceImpl.ArticleService;
+import com.sylphcorps.serviceImpl.FeedSnapshotService;
+import com.sylphcorps.serviceImpl.FeedSnapshotService.Feed;
+import com.sylphcorps.serviceImpl.FeedSnapshotService.Snapshot;
 import com.sylphcorps.serviceImpl.UserService;
+import com.sylphcorps.utils.HttpValidators;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/articles")
 public class ArticleController {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
+    // sortBy values accepted by /public, each an ordering the
+    // (is_published, <column>, id) indexes on Article can return directly
+    private static final Map<String, Sort> PUBLIC_SORTS = Map.of(
+            "publishedAt", Sort.by("publishedAt", "id"),
+            "viewCount", Sort.by("viewCount", "id"));
+
     @Autowired
     private ArticleService articleService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private FeedSnapshotService feedSnapshotService;
+
+    @Autowired
+    private ArticleImportService articleImportService;
+
     // Public endpoints
     @GetMapping("/public")
-    public ResponseEntity<Page<Article>> getAllPublishedArticles(
+    public ResponseEntity<Page<ArticleSummary>> getAllPublishedArticles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "publishedAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
 
-        Sort sort = sortDir.equalsIgnoreCase("desc") ?
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Sort sort = PUBLIC_SORTS.get(sortBy);
+        if (sort == null) {
+            throw new BadRequestException("sortBy must be publishedAt or viewCount");
+        }
+        sort = sortDir.equalsIgnoreCase("desc") ? sort.descending() : sort.ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        return ResponseEntity.ok(articleService.getAllPublishedArticles(pageable));
+        return conditional(articleService.getAllPublishedArticles(pageable));
     }
 
     @GetMapping("/public/{slug}")
-    public ResponseEntity<Article> getArticleBySlug(@PathVariable String slug) {
+    public ResponseEntity<Article> getArticleBySlug(@PathVariable String slug, WebRequest request) {
+        // Revalidation is answered from the version alone, without loading the content.
+        // Unconditional requests skip the probe: they need the full article anyway
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<ArticleVersion> version = articleService.findVersionBySlug(slug);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(HttpValidators.etag(version.get()), HttpValidators.lastModified(version.get()))) {
+                return null;
+            }
+        }
+
         return articleService.findBySlug(slug)
-                .map(article -> ResponseEntity.ok().body(article))
+                .map(article -> {
+                    ArticleVersion current = ArticleVersion.of(article);
+                    return HttpValidators.ok(article, HttpValidators.etag(current), HttpValidators.lastModified(current));
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/{slug}/view")
-    public ResponseEntity<Article> incrementViewCount(@PathVariable String slug) {
-        return ResponseEntity.ok(articleService.incrementViewCount(slug));
+    public ResponseEntity<Void> incrementViewCount(@PathVariable String slug) {
+        articleService.incrementViewCount(slug);
+        return ResponseEntity.accepted().build();
     }
 
     @GetMapping("/featured")
-    public ResponseEntity<Page<Article>> getFeaturedArticles(
+    public ResponseEntity<?> getFeaturedArticles(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("publishedAt").descending());
-        return ResponseEntity.ok(articleService.getFeaturedArticles(pageable));
+        Optional<Snapshot> snapshot = feedSnapshotService.get(Feed.FEATURED, page, size);
+        if (snapshot.isPresent()) {
+            return snapshotResponse(snapshot.get(), acceptEncoding);
+        }
+        Pageable pageable = PageRequest.of(page, size, ArticleService.NEWEST_FIRST);
+        return conditional(articleService.getFeaturedArticles(pageable));
     }
 
     @GetMapping("/trending")
-    public ResponseEntity<Page<Article>> getTrendingArticles(
+    public ResponseEntity<?> getTrendingArticles(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("publishedAt").descending());
-        return ResponseEntity.ok(articleService.getTrendingArticles(pageable));
+        Optional<Snapshot> snapshot = feedSnapshotService.get(Feed.TRENDING, page, size);
+        if (snapshot.isPresent()) {
+            return snapshotResponse(snapshot.get(), acceptEncoding);
+        }
+        Pageable pageable = PageRequest.of(page, size, ArticleService.NEWEST_FIRST);
+        return conditional(articleService.getTrendingArticles(pageable));
     }
 
     @GetMapping("/latest")
-    public ResponseEntity<Page<Article>> getLatestArticles(
+    public ResponseEntity<?> getLatestArticles(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
+        Optional<Snapshot> snapshot = feedSnapshotService.get(Feed.LATEST, page, size);
+        if (snapshot.isPresent()) {
+            return snapshotResponse(snapshot.get(), acceptEncoding);
+        }
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(articleService.getLatestArticles(pageable));
+        return conditional(articleService.getLatestArticles(pageable));
     }
 
     @GetMapping("/most-viewed")
-    public ResponseEntity<Page<Article>> getMostViewedArticles(
+    public ResponseEntity<Page<ArticleSummary>> getMostViewedArticles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(articleService.getMostViewedArticles(pageable));
+        return conditional(articleService.getMostViewedArticles(pageable));
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<Page<Article>> getArticlesByCategory(
+    public ResponseEntity<Page<ArticleSummary>> getArticlesByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("publishedAt").descending());
-        return ResponseEntity.ok(articleService.getArticlesByCategory(category, pageable));
+        Pageable pageable = PageRequest.of(page, size, ArticleService.NEWEST_FIRST);
+        return conditional(articleService.getArticlesByCategory(category, pageable));
+    }
+
+    // Keyset-paginated listings for infinite scroll: constant cost at any depth, no total count
+    @GetMapping("/scroll/latest")
+    public ResponseEntity<CursorPage<ArticleSummary>> scrollLatestArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return conditional(articleService.scrollLatestArticles(cursor, scrollSize(size)));
+    }
+
+    @GetMapping("/scroll/most-viewed")
+    public ResponseEntity<CursorPage<ArticleSummary>> scrollMostViewedArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return conditional(articleService.scrollMostViewedArticles(cursor, scrollSize(size)));
+    }
+
+    @GetMapping("/scroll/featured")
+    public ResponseEntity<CursorPage<ArticleSummary>> scrollFeaturedArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return conditional(articleService.scrollFeaturedArticles(cursor, scrollSize(size)));
+    }
+
+    @GetMapping("/scroll/trending")
+    public ResponseEntity<CursorPage<ArticleSummary>> scrollTrendingArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return conditional(articleService.scrollTrendingArticles(cursor, scrollSize(size)));
+    }
+
+    @GetMapping("/scroll/category/{category}")
+    public ResponseEntity<CursorPage<ArticleSummary>> scrollArticlesByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return conditional(articleService.scrollArticlesByCategory(category, cursor, scrollSize(size)));
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<List<String>> getAllCategories() {
-        return ResponseEntity.ok(articleService.getAllCategories());
+    public ResponseEntity<?> getAllCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<Snapshot> snapshot = feedSnapshotService.get(Feed.CATEGORIES);
+        if (snapshot.isPresent()) {
+            return snapshotResponse(snapshot.get(), acceptEncoding);
+        }
+        List<String> categories = articleService.getAllCategories();
+        return HttpValidators.ok(categories, HttpValidators.etagOfValues(categories),
+                HttpValidators.lastModified(List.of(), articleService.getListingsModifiedAt()));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<Article>> searchArticles(
+    public ResponseEntity<Page<ArticleSummary>> searchArticles(
             @RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("publishedAt").descending());
-        return ResponseEntity.ok(articleService.searchArticles(q, pageable));
+        // Results are ordered by relevance
+        Pageable pageable = PageRequest.of(page, size);
+        return conditional(articleService.searchArticles(q, pageable));
+    }
+
+    private static int scrollSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+    }
+
+    // Pre-serialized homepage feed: the bytes are written as-is, gzipped when the client accepts it
+    private static ResponseEntity<byte[]> snapshotResponse(Snapshot snapshot, String acceptEncoding) {
+        boolean gzip = snapshot.getGzip() != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(snapshot.getEtag(gzip))
+                .lastModified(snapshot.getLastModified());
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? snapshot.getGzip() : snapshot.getJson());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // Listings carry validators so polling clients get 304 when nothing changed
+    private ResponseEntity<Page<ArticleSummary>> conditional(Page<ArticleSummary> page) {
+        return HttpValidators.ok(page, HttpValidators.etag(page),
+                HttpValidators.lastModified(page.getContent(), articleService.getListingsModifiedAt()));
+    }
+
+    private ResponseEntity<CursorPage<ArticleSummary>> conditional(CursorPage<ArticleSummary> page) {
+        return HttpValidators.ok(page, HttpValidators.etag(page),
+                HttpValidators.lastModified(page.getContent(), articleService.getListingsModifiedAt()));
     }
 
     // Author endpoints
@@ -135,6 +287,20 @@ public class ArticleController {
         return ResponseEntity.ok(article);
     }
 
+    /**
+     * Bulk import: one article JSON object per line, all authored by the
+     * caller. Bad lines are reported by line number and skipped.
+     */
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('AUTHOR') or hasRole('ADMIN')")
+    public ResponseEntity<ArticleImportService.Result> importArticles(InputStream body) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        User author = userService.findById(userDetails.getId());
+
+        return ResponseEntity.ok(articleImportService.importArticles(body, author));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('AUTHOR') or hasRole('ADMIN')")
     public ResponseEntity<Article> updateArticle(@PathVariable Long id, @Valid @RequestBody ArticleDTO articleDTO) {
@@ -147,7 +313,7 @@ public class ArticleController {
 
     @GetMapping("/my-articles")
     @PreAuthorize("hasRole('AUTHOR') or hasRole('ADMIN')")
-    public ResponseEntity<Page<Article>> getMyArticles(
+    public ResponseEntity<Page<ArticleSummary>> getMyArticles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
@@ -155,7 +321,7 @@ public class ArticleController {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         User author = userService.findById(userDetails.getId());
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Pageable pageable = PageRequest.of(page, size, ArticleService.NEWEST_CREATED_FIRST);
         return ResponseEntity.ok(articleService.getArticlesByAuthor(author, pageable));
     }
 }
\ No newline at end of file
@@ -11,10 +11,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import com.sylphcorps.dto.AuthResponse;
 import com.sylphcorps.dto.LoginRequest;
 import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.exception.GlobalExceptionHandler.BadRequestException;
 import com.sylphcorps.model.Role;
 import com.sylphcorps.model.User;
 import com.sylphcorps.security.JwtUtils;
 import com.sylphcorps.security.UserDetailsImpl;
+import com.sylphcorps.serviceImpl.PasswordHashingService;
 import com.sylphcorps.serviceImpl.UserService;
 import com.sylphcorps.serviceImpl.UserService;
 import javax.validation.Valid;
@@ -30,12 +32,12 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -51,6 +53,9 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
 
     @PostMapping("/signin")
     @Operation(
@@ -75,32 +80,41 @@ public class AuthController {
                     description = "User not found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Too many concurrent sign-ins, retry later",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiResponse.class))
             )
     })
 
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
-
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-
-        // Convert authorities to List<String>
-        List<String> roles = userDetails.getAuthorities()
-                .stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(new AuthResponse(
-                jwt,
-                userDetails.getId(),
-                userDetails.getUsername(),
-                userDetails.getEmail(),        // <-- missing in your code
-                userDetails.getFullName(),
-                roles
-        ));
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        // BCrypt verification runs on the hashing pool; the request thread is released meanwhile
+        return passwordHashingService.submit(() -> {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+
+            // Stateless: the token is the session, and the pool thread must not keep a SecurityContext
+            String jwt = jwtUtils.generateJwtToken(authentication);
+
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+            // Convert authorities to List<String>
+            List<String> roles = userDetails.getAuthorities()
+                    .stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(new AuthResponse(
+                    jwt,
+                    userDetails.getId(),
+                    userDetails.getUsername(),
+                    userDetails.getEmail(),        // <-- missing in your code
+                    userDetails.getFullName(),
+                    roles
+            ));
+        });
     }
 
 
@@ -127,26 +141,28 @@ public class AuthController {
                     description = "Internal server error",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Too many concurrent sign-ups, retry later",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiResponse.class))
             )
     })
 
 
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-        Map<String, String> response = new HashMap<>();
-
-        if (userService.existsByUsername(signUpRequest.getUsername())) {
-            response.put("message", "Error: Username is already taken!");
-            return ResponseEntity.badRequest().body(response);
-        }
-
-        if (userService.existsByEmail(signUpRequest.getEmail())) {
-            response.put("message", "Error: Email is already in use!");
-            return ResponseEntity.badRequest().body(response);
-        }
-
-        User user = userService.createUser(signUpRequest);
-        response.put("message", "User registered successfully!");
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+        return passwordHashingService.submit(() -> {
+            Map<String, String> response = new HashMap<>();
+            try {
+                userService.createUser(signUpRequest);
+            } catch (BadRequestException e) {
+                response.put("message", e.getMessage());
+                return ResponseEntity.badRequest().body(response);
+            }
+            response.put("message", "User registered successfully!");
+            return ResponseEntity.ok(response);
+        });
     }
 
     /*@PostMapping("/signup/author")
@@ -0,0 +1,19 @@
+package com.sylphcorps.dto;
+
+/**
+ * The columns needed to record a view of an article, resolved from its slug
+ * without loading the content.
+ */
+public class ArticleRef {
+    private final Long id;
+    private final boolean isPublished;
+
+    public ArticleRef(Long id, boolean isPublished) {
+        this.id = id;
+        this.isPublished = isPublished;
+    }
+
+    public Long getId() { return id; }
+
+    public boolean isPublished() { return isPublished; }
+}
@@ -0,0 +1,90 @@
+package com.sylphcorps.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Card view of an article used by every listing. Built directly by JPQL
+ * constructor expressions in ArticleRepository, so the TEXT content column
+ * is never selected for lists.
+ */
+public class ArticleSummary {
+    private Long id;
+    private String title;
+    private String slug;
+    private String excerpt;
+    private String imageUrl;
+    private String category;
+    private boolean isPublished;
+    private boolean isFeatured;
+    private boolean isTrending;
+    private Long viewCount;
+    private LocalDateTime publishedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public ArticleSummary(Long id, String title, String slug, String excerpt, String imageUrl, String category,
+                          boolean isPublished, boolean isFeatured, boolean isTrending, Long viewCount,
+                          LocalDateTime publishedAt, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.slug = slug;
+        this.excerpt = excerpt;
+        this.imageUrl = imageUrl;
+        this.category = category;
+        this.isPublished = isPublished;
+        this.isFeatured = isFeatured;
+        this.isTrending = isTrending;
+        this.viewCount = viewCount;
+        this.publishedAt = publishedAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * A copy with another view count; summaries may come from a shared cache.
+     */
+    public ArticleSummary copyWithViewCount(Long viewCount) {
+        return new ArticleSummary(id, title, slug, excerpt, imageUrl, category, isPublished, isFeatured, isTrending,
+                viewCount, publishedAt, createdAt, updatedAt);
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getSlug() { return slug; }
+    public void setSlug(String slug) { this.slug = slug; }
+
+    public String getExcerpt() { return excerpt; }
+    public void setExcerpt(String excerpt) { this.excerpt = excerpt; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public boolean isPublished() { return isPublished; }
+    public void setPublished(boolean published) { isPublished = published; }
+
+    public boolean isFeatured() { return isFeatured; }
+    public void setFeatured(boolean featured) { isFeatured = featured; }
+
+    public boolean isTrending() { return isTrending; }
+    public void setTrending(boolean trending) { isTrending = trending; }
+
+    public Long getViewCount() { return viewCount; }
+    public void setViewCount(Long viewCount) { this.viewCount = viewCount; }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(LocalDateTime publishedAt) { this.publishedAt = publishedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
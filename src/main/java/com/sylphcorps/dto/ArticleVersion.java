@@ -0,0 +1,31 @@
+package com.sylphcorps.dto;
+
+import com.sylphcorps.model.Article;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns that identify a version of an article response, used to answer
+ * conditional GETs without loading the content.
+ */
+public class ArticleVersion {
+    private final Long id;
+    private final LocalDateTime updatedAt;
+    private final Long viewCount;
+
+    public ArticleVersion(Long id, LocalDateTime updatedAt, Long viewCount) {
+        this.id = id;
+        this.updatedAt = updatedAt;
+        this.viewCount = viewCount;
+    }
+
+    public static ArticleVersion of(Article article) {
+        return new ArticleVersion(article.getId(), article.getUpdatedAt(), article.getViewCount());
+    }
+
+    public Long getId() { return id; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public Long getViewCount() { return viewCount; }
+}
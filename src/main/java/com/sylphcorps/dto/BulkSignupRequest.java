@@ -0,0 +1,16 @@
+package com.sylphcorps.dto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class BulkSignupRequest {
+    @NotEmpty
+    @Size(max = 10000)
+    @Valid
+    private List<SignupRequest> users;
+
+    public List<SignupRequest> getUsers() { return users; }
+    public void setUsers(List<SignupRequest> users) { this.users = users; }
+}
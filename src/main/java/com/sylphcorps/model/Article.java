@@ -4,18 +4,41 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
+// Composite indexes lead with the listing filter and end with the sort key and
+// id, so each page is a range read in index order (scanned backwards for DESC).
+// The schema is created by the migrations in db/migration, which also add
+// partial indexes for the featured and trending feeds on PostgreSQL.
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", uniqueConstraints = {
+        @UniqueConstraint(name = Article.UK_SLUG, columnNames = "slug")
+}, indexes = {
+        @Index(name = Article.IDX_PUBLISHED_AT, columnList = "is_published, published_at, id"),
+        @Index(name = Article.IDX_VIEW_COUNT, columnList = "is_published, view_count, id"),
+        @Index(name = Article.IDX_CATEGORY, columnList = "is_published, category, published_at, id"),
+        @Index(name = Article.IDX_AUTHOR, columnList = "author_id, created_at, id")
+})
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "articles")
 public class Article {
+    public static final String UK_SLUG = "uk_articles_slug";
+    public static final String IDX_PUBLISHED_AT = "idx_articles_published_at";
+    public static final String IDX_VIEW_COUNT = "idx_articles_view_count";
+    public static final String IDX_CATEGORY = "idx_articles_category";
+    public static final String IDX_AUTHOR = "idx_articles_author";
+
+    // Pooled sequence ids (one nextval per 50 rows) so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "articles_id_seq")
+    @SequenceGenerator(name = "articles_id_seq", sequenceName = "articles_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -23,7 +46,6 @@ public class Article {
     private String title;
 
     @NotBlank
-    @Column(unique = true)
     private String slug;
 
     @NotBlank
@@ -49,7 +71,8 @@ public class Article {
     @Column(name = "is_trending")
     private boolean isTrending = false;
 
-    @Column(name = "view_count")
+    // Written only by ViewCountBuffer so entity saves never overwrite buffered views
+    @Column(name = "view_count", updatable = false)
     private Long viewCount = 0L;
 
     @Column(name = "published_at")
@@ -80,6 +103,24 @@ public class Article {
         this.author = author;
     }
 
+    /**
+     * A detached copy with another view count, for responses built from a
+     * cached instance that other requests share.
+     */
+    public Article copyWithViewCount(Long viewCount) {
+        Article copy = new Article(title, slug, excerpt, content, category, author);
+        copy.id = id;
+        copy.imageUrl = imageUrl;
+        copy.isPublished = isPublished;
+        copy.isFeatured = isFeatured;
+        copy.isTrending = isTrending;
+        copy.viewCount = viewCount;
+        copy.publishedAt = publishedAt;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -125,9 +166,4 @@ public class Article {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
-
-    // Helper method to increment view count
-    public void incrementViewCount() {
-        this.viewCount++;
-    }
 }
\ No newline at end of file
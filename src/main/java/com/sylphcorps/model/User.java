@@ -9,28 +9,36 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
-@Table(name = "users")
+// Named so a violation can be mapped back to the field that caused it
+@Table(name = "users", uniqueConstraints = {
+		@UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+		@UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")
+})
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
+	public static final String UK_USERNAME = "uk_users_username";
+	public static final String UK_EMAIL = "uk_users_email";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
 	@NotBlank
 	@Size(max = 50)
-	@Column(unique = true)
 	private String username;
 
 	@NotBlank
 	@Size(max = 100)
 	@Email
-	@Column(unique = true)
 	private String email;
 
 	@NotBlank
@@ -52,7 +60,12 @@ public class User {
 	@Column(name = "is_active")
 	private boolean isActive = true;
 
+	// Embedded in issued JWTs; bumping it revokes every token issued before
+	@Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+	private int tokenVersion = 0;
+
 	@OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-articles")
 	@JsonIgnore
 	private List<Article> articles = new ArrayList<>();
 
@@ -100,6 +113,9 @@ public class User {
 	public boolean isActive() { return isActive; }
 	public void setActive(boolean active) { isActive = active; }
 
+	public int getTokenVersion() { return tokenVersion; }
+	public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
+
 	public List<Article> getArticles() { return articles; }
 	public void setArticles(List<Article> articles) { this.articles = articles; }
 
@@ -1,50 +1,159 @@
 package com.sylphcorps.repository;
 
+import com.sylphcorps.dto.ArticleRef;
+import com.sylphcorps.dto.ArticleSummary;
+import com.sylphcorps.dto.ArticleVersion;
 import com.sylphcorps.model.Article;
 import com.sylphcorps.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.CACHE_MODE;
+import static org.hibernate.annotations.QueryHints.CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, Long> {
 
+    // Must match the expression of the idx_articles_search GIN index (V3 migration) exactly
+    String SEARCH_VECTOR = "(setweight(to_tsvector('english', coalesce(title, '')), 'A')"
+            + " || setweight(to_tsvector('english', coalesce(excerpt, '')), 'B')"
+            + " || setweight(to_tsvector('english', coalesce(content, '')), 'C'))";
+
+    // Listings select only the card columns, never the TEXT content
+    String SUMMARY = "SELECT new com.sylphcorps.dto.ArticleSummary(a.id, a.title, a.slug, a.excerpt, a.imageUrl,"
+            + " a.category, a.isPublished, a.isFeatured, a.isTrending, a.viewCount, a.publishedAt, a.createdAt,"
+            + " a.updatedAt) FROM Article a";
+
+    String COUNT_PUBLISHED = "SELECT COUNT(a) FROM Article a WHERE a.isPublished = true";
+
+    // Query cache regions, see application.conf. Results are invalidated by
+    // Hibernate on entity writes. View count flushes bypass Hibernate and
+    // invalidate nothing: the most-viewed order lives in its own region and is
+    // re-read when it expires.
+    String LISTINGS_REGION = "article-listings";
+    String MOST_VIEWED_REGION = "article-most-viewed";
+    String CATEGORIES_REGION = "article-categories";
+    String EXPORT_FETCH_SIZE = "1000";
+
     Optional<Article> findBySlug(String slug);
 
-    Boolean existsBySlug(String slug);
+    @Query("SELECT new com.sylphcorps.dto.ArticleVersion(a.id, a.updatedAt, a.viewCount) FROM Article a WHERE a.slug = ?1")
+    Optional<ArticleVersion> findVersionBySlug(String slug);
+
+    @Query("SELECT new com.sylphcorps.dto.ArticleRef(a.id, a.isPublished) FROM Article a WHERE a.slug = ?1")
+    Optional<ArticleRef> findRefBySlug(String slug);
+
+    // The base slug and every "base-..." slug, for SlugAllocator
+    @Query("SELECT a.slug FROM Article a WHERE a.slug = ?1 OR a.slug LIKE CONCAT(?1, '-%')")
+    List<String> findSlugsWithPrefix(String base);
+
+    // Which of these exact slugs exist, for SlugAllocator.allocateAll
+    @Query("SELECT a.slug FROM Article a WHERE a.slug IN ?1")
+    List<String> findExistingSlugs(Collection<String> slugs);
+
+    // Every article with its author, read through a server-side cursor for exports;
+    // bypasses the second-level cache so an export does not flush it
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = CACHE_MODE, value = "IGNORE"),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT a FROM Article a LEFT JOIN FETCH a.author ORDER BY a.id")
+    Stream<Article> streamAllForExport();
 
     Page<Article> findByIsPublishedTrue(Pageable pageable);
 
-    Page<Article> findByIsPublishedTrueAndIsFeaturedTrue(Pageable pageable);
+    @Query(value = SUMMARY + " WHERE a.isPublished = true", countQuery = COUNT_PUBLISHED)
+    Page<ArticleSummary> findPublishedSummaries(Pageable pageable);
 
-    Page<Article> findByIsPublishedTrueAndIsTrendingTrue(Pageable pageable);
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = LISTINGS_REGION)})
+    @Query(value = SUMMARY + " WHERE a.isPublished = true AND a.isFeatured = true",
+            countQuery = COUNT_PUBLISHED + " AND a.isFeatured = true")
+    Page<ArticleSummary> findFeaturedSummaries(Pageable pageable);
 
-    Page<Article> findByIsPublishedTrueAndCategory(String category, Pageable pageable);
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = LISTINGS_REGION)})
+    @Query(value = SUMMARY + " WHERE a.isPublished = true AND a.isTrending = true",
+            countQuery = COUNT_PUBLISHED + " AND a.isTrending = true")
+    Page<ArticleSummary> findTrendingSummaries(Pageable pageable);
 
-    Page<Article> findByAuthor(User author, Pageable pageable);
+    @Query(value = SUMMARY + " WHERE a.isPublished = true AND a.category = ?1",
+            countQuery = COUNT_PUBLISHED + " AND a.category = ?1")
+    Page<ArticleSummary> findSummariesByCategory(String category, Pageable pageable);
 
-    Page<Article> findByAuthorAndIsPublishedTrue(User author, Pageable pageable);
+    @Query(value = SUMMARY + " WHERE a.author = ?1",
+            countQuery = "SELECT COUNT(a) FROM Article a WHERE a.author = ?1")
+    Page<ArticleSummary> findSummariesByAuthor(User author, Pageable pageable);
 
-    @Query("SELECT a FROM Article a WHERE a.isPublished = true AND (a.title LIKE %?1% OR a.content LIKE %?1%)")
-    Page<Article> findBySearchTerm(String searchTerm, Pageable pageable);
+    @Query(value = SUMMARY + " WHERE a.author = ?1 AND a.isPublished = true",
+            countQuery = COUNT_PUBLISHED + " AND a.author = ?1")
+    Page<ArticleSummary> findPublishedSummariesByAuthor(User author, Pageable pageable);
 
-    @Query("SELECT DISTINCT a.category FROM Article a WHERE a.isPublished = true AND a.category IS NOT NULL")
-    List<String> findDistinctCategories();
+    @Query(value = SUMMARY, countQuery = "SELECT COUNT(a) FROM Article a")
+    Page<ArticleSummary> findAllSummaries(Pageable pageable);
 
-    @Query("SELECT a FROM Article a WHERE a.isPublished = true ORDER BY a.viewCount DESC")
-    Page<Article> findMostViewedArticles(Pageable pageable);
+    @Query(SUMMARY + " WHERE a.id IN ?1")
+    List<ArticleSummary> findSummariesByIdIn(Collection<Long> ids);
 
-    @Query("SELECT a FROM Article a WHERE a.isPublished = true ORDER BY a.publishedAt DESC")
-    Page<Article> findLatestArticles(Pageable pageable);
+    @Query(value = "SELECT a.id FROM articles a WHERE a.is_published = true"
+            + " AND " + SEARCH_VECTOR + " @@ plainto_tsquery('english', ?1)"
+            + " ORDER BY ts_rank_cd(" + SEARCH_VECTOR + ", plainto_tsquery('english', ?1)) DESC, a.id DESC",
+            countQuery = "SELECT count(*) FROM articles a WHERE a.is_published = true"
+                    + " AND " + SEARCH_VECTOR + " @@ plainto_tsquery('english', ?1)",
+            nativeQuery = true)
+    Page<Number> findIdsBySearchTerm(String searchTerm, Pageable pageable);
 
-    @Query("SELECT COUNT(a) FROM Article a WHERE a.author = ?1")
-    Long countByAuthor(User author);
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = CATEGORIES_REGION)})
+    @Query("SELECT DISTINCT a.category FROM Article a WHERE a.isPublished = true AND a.category IS NOT NULL")
+    List<String> findDistinctCategories();
 
-    @Query("SELECT COUNT(a) FROM Article a WHERE a.author = ?1 AND a.isPublished = true")
-    Long countByAuthorAndIsPublishedTrue(User author);
-}
\ No newline at end of file
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = MOST_VIEWED_REGION)})
+    @Query(value = SUMMARY + " WHERE a.isPublished = true ORDER BY a.viewCount DESC, a.id DESC", countQuery = COUNT_PUBLISHED)
+    Page<ArticleSummary> findMostViewedSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY + " WHERE a.isPublished = true ORDER BY a.publishedAt DESC, a.id DESC", countQuery = COUNT_PUBLISHED)
+    Page<ArticleSummary> findLatestSummaries(Pageable pageable);
+
+    // Keyset (seek) queries: callers pass the last row's sort value and id,
+    // and a Pageable only to cap the row count, so no COUNT query is issued.
+
+    @Query(SUMMARY + " WHERE a.isPublished = true"
+            + " AND (a.publishedAt < ?1 OR (a.publishedAt = ?1 AND a.id < ?2))"
+            + " ORDER BY a.publishedAt DESC, a.id DESC")
+    List<ArticleSummary> findPublishedBefore(LocalDateTime publishedAt, Long id, Pageable limit);
+
+    @Query(SUMMARY + " WHERE a.isPublished = true AND a.isFeatured = true"
+            + " AND (a.publishedAt < ?1 OR (a.publishedAt = ?1 AND a.id < ?2))"
+            + " ORDER BY a.publishedAt DESC, a.id DESC")
+    List<ArticleSummary> findFeaturedBefore(LocalDateTime publishedAt, Long id, Pageable limit);
+
+    @Query(SUMMARY + " WHERE a.isPublished = true AND a.isTrending = true"
+            + " AND (a.publishedAt < ?1 OR (a.publishedAt = ?1 AND a.id < ?2))"
+            + " ORDER BY a.publishedAt DESC, a.id DESC")
+    List<ArticleSummary> findTrendingBefore(LocalDateTime publishedAt, Long id, Pageable limit);
+
+    @Query(SUMMARY + " WHERE a.isPublished = true AND a.category = ?1"
+            + " AND (a.publishedAt < ?2 OR (a.publishedAt = ?2 AND a.id < ?3))"
+            + " ORDER BY a.publishedAt DESC, a.id DESC")
+    List<ArticleSummary> findByCategoryBefore(String category, LocalDateTime publishedAt, Long id, Pageable limit);
+
+    @Query(SUMMARY + " WHERE a.isPublished = true"
+            + " AND (a.viewCount < ?1 OR (a.viewCount = ?1 AND a.id < ?2))"
+            + " ORDER BY a.viewCount DESC, a.id DESC")
+    List<ArticleSummary> findMostViewedBefore(Long viewCount, Long id, Pageable limit);
+
+    // Feeds StatisticsService reconciliation: [authorId, category, isPublished, count]
+    @Query("SELECT a.author.id, a.category, a.isPublished, COUNT(a) FROM Article a"
+            + " GROUP BY a.author.id, a.category, a.isPublished")
+    List<Object[]> countGroupedByAuthorCategoryAndPublished();
+}
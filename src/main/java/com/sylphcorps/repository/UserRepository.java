@@ -6,18 +6,38 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.CACHE_MODE;
+import static org.hibernate.annotations.QueryHints.CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+	String USERS_BY_USERNAME_REGION = "users-by-username";
+	String EXPORT_FETCH_SIZE = "1000";
+
+	// Looked up on every authenticated request; the cached id resolves through the User entity region
+	@QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = USERS_BY_USERNAME_REGION)})
 	Optional<User> findByUsername(String username);
 
 	Optional<User> findByEmail(String email);
 
+	// Every user, read through a server-side cursor for exports
+	@QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = CACHE_MODE, value = "IGNORE"),
+			@QueryHint(name = HINT_READONLY, value = "true")})
+	@Query("SELECT u FROM User u ORDER BY u.id")
+	Stream<User> streamAllForExport();
+
 	Boolean existsByUsername(String username);
 
 	Boolean existsByEmail(String email);
@@ -31,4 +51,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
 	@Query("SELECT u FROM User u WHERE u.fullName LIKE %?1% OR u.username LIKE %?1% OR u.email LIKE %?1%")
 	Page<User> findBySearchTerm(String searchTerm, Pageable pageable);
+
+	// Token version for TokenVersionCache, -1 when the user is deactivated
+	@Query("SELECT CASE WHEN u.isActive = true THEN u.tokenVersion ELSE -1 END FROM User u WHERE u.id = ?1")
+	Optional<Integer> findActiveTokenVersionById(Long id);
+
+	// Feeds StatisticsService reconciliation: [role, count]
+	@Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+	List<Object[]> countGroupedByRole();
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.sylphcorps.search;
+
+import com.sylphcorps.model.Article;
+import com.sylphcorps.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded inverted index with BM25 ranking. Built from the database on
+ * startup and kept current by ArticleService after each committed write.
+ * Only published articles are indexed; like plainto_tsquery, a document
+ * must contain every query term to match.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "memory")
+public class InMemorySearchBackend implements SearchBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySearchBackend.class);
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float EXCERPT_WEIGHT = 2.0f;
+    private static final float CONTENT_WEIGHT = 1.0f;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    // term -> (article id -> weighted term frequency)
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int page = 0;
+        Page<Article> batch;
+        do {
+            batch = articleRepository.findByIsPublishedTrue(PageRequest.of(page++, REBUILD_PAGE_SIZE, Sort.by("id")));
+            batch.forEach(this::index);
+        } while (batch.hasNext());
+        logger.info("Search index built with {} articles", documents.size());
+    }
+
+    @Override
+    public Page<Long> search(String query, Pageable pageable) {
+        Set<String> terms = new LinkedHashSet<>(EnglishAnalyzer.analyze(query));
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        List<ScoredId> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Float>> termPostings = new ArrayList<>();
+            for (String term : terms) {
+                Map<Long, Float> docs = postings.get(term);
+                if (docs == null) {
+                    return Page.empty(pageable);
+                }
+                termPostings.add(docs);
+            }
+            termPostings.sort(Comparator.comparingInt(Map::size));
+
+            int documentCount = documents.size();
+            double averageLength = totalLength / documentCount;
+            candidates:
+            for (Long id : termPostings.get(0).keySet()) {
+                double length = documents.get(id).length;
+                double score = 0;
+                for (Map<Long, Float> docs : termPostings) {
+                    Float tf = docs.get(id);
+                    if (tf == null) {
+                        continue candidates;
+                    }
+                    double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                    score += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                }
+                matches.add(new ScoredId(id, score));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingDouble((ScoredId match) -> match.score).reversed()
+                .thenComparing(match -> match.id, Comparator.reverseOrder()));
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Long> ids = new ArrayList<>(to - from);
+        for (ScoredId match : matches.subList(from, to)) {
+            ids.add(match.id);
+        }
+        return new PageImpl<>(ids, pageable, matches.size());
+    }
+
+    @Override
+    public void index(Article article) {
+        if (!article.isPublished()) {
+            remove(article.getId());
+            return;
+        }
+
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, article.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, article.getExcerpt(), EXCERPT_WEIGHT);
+        addTerms(weights, article.getContent(), CONTENT_WEIGHT);
+        float length = 0;
+        for (float weight : weights.values()) {
+            length += weight;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(article.getId());
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(article.getId(), entry.getValue());
+            }
+            documents.put(article.getId(), new Document(weights.keySet(), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long articleId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long articleId) {
+        Document document = documents.remove(articleId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            Map<Long, Float> docs = postings.get(term);
+            docs.remove(articleId);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String term : EnglishAnalyzer.analyze(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    private static final class Document {
+        private final Set<String> terms;
+        private final float length;
+
+        private Document(Set<String> terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    private static final class ScoredId {
+        private final Long id;
+        private final double score;
+
+        private ScoredId(Long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
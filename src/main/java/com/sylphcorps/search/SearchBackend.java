@@ -0,0 +1,31 @@
+package com.sylphcorps.search;
+
+import com.sylphcorps.model.Article;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Full-text search over published articles.
+ *
+ * Selected with app.search.backend: "postgres" (tsvector + GIN index) or
+ * "memory" (embedded inverted index, useful on databases without
+ * PostgreSQL text search).
+ */
+public interface SearchBackend {
+
+    /**
+     * Ids of published articles matching every term of the query, most
+     * relevant first. Any sort on the pageable is ignored.
+     */
+    Page<Long> search(String query, Pageable pageable);
+
+    /**
+     * Called after an article is created or changed.
+     */
+    void index(Article article);
+
+    /**
+     * Called after an article is deleted.
+     */
+    void remove(Long articleId);
+}
@@ -5,6 +5,11 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import com.sylphcorps.model.Role;
+import com.sylphcorps.utils.EndpointTags;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,30 +21,43 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
+    public static final String METRIC = "app.auth.filter";
+
     @Autowired
     private JwtUtils jwtUtils;
 
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        long start = System.nanoTime();
+        String outcome = "anonymous";
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt == null ? null : jwtUtils.parseValidClaims(jwt);
+            UserDetails userDetails = claims == null ? null : principalFrom(claims);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                outcome = "authenticated";
+            } else if (jwt != null) {
+                outcome = "rejected";
             }
 
             String path = request.getServletPath();
@@ -49,10 +67,39 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             }
 
         } catch (Exception e) {
+            outcome = "error";
             logger.error("Cannot set user authentication: {}", e);
         }
+        long elapsed = System.nanoTime() - start;
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Only the token work is timed; the endpoint is known once the chain has run
+            Timer.builder(METRIC)
+                    .description("Time spent authenticating the request's JWT")
+                    .tag("endpoint", EndpointTags.of(request))
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Built from the claims alone; only tokens issued before the claims were
+    // added still need a users table lookup
+    private UserDetails principalFrom(Claims claims) {
+        Long userId = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+        if (userId == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        Integer version = claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Integer.class);
+        if (version == null || !tokenVersionCache.isCurrent(userId, version)) {
+            logger.debug("Rejecting revoked token for user {}", userId);
+            return null;
+        }
+        Role role = Role.valueOf(claims.get(JwtUtils.CLAIM_ROLE, String.class));
+        return UserDetailsImpl.fromClaims(userId, claims.getSubject(), role, version);
     }
 
     private String parseJwt(HttpServletRequest request) {
@@ -2,7 +2,9 @@ package com.sylphcorps.security;
 
 import com.sylphcorps.security.AuthTokenFilter;
 import com.sylphcorps.security.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,10 +37,18 @@ public class SecurityConfig {
         return new AuthTokenFilter();
     }
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Raising it makes existing hashes upgrade on their owner's next sign-in
+    @Value("${app.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
     }
@@ -50,7 +60,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), meterRegistry);
     }
 
     @Bean
@@ -81,10 +91,14 @@ public class SecurityConfig {
                 .antMatchers("/api/articles/trending").permitAll()
                 .antMatchers("/api/articles/latest").permitAll()
                 .antMatchers("/api/articles/search").permitAll()
+                .antMatchers("/api/articles/scroll/**").permitAll()
 
                 // Health check
                 .antMatchers("/actuator/health").permitAll()
 
+                // Prometheus scrapes, and startup timelines are read, from the same host
+                .antMatchers("/actuator/prometheus", "/actuator/startup").access("hasIpAddress('127.0.0.1') or hasIpAddress('::1')")
+
                 // Role-based access
                 .antMatchers("/api/admin/**").hasRole("ADMIN")
                 .antMatchers("/api/author/**").hasAnyRole("ADMIN", "AUTHOR")
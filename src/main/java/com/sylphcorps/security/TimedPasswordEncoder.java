@@ -0,0 +1,47 @@
+package com.sylphcorps.security;
+
+import com.sylphcorps.utils.EndpointTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Records how long each encode and match takes, as the
+ * security.password.hashing timer tagged with the operation and endpoint.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    public static final String METRIC = "security.password.hashing";
+
+    private final PasswordEncoder delegate;
+    private final MeterRegistry meterRegistry;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return timer("encode").record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matches = timer("matches").record(() -> delegate.matches(rawPassword, encodedPassword));
+        return matches != null && matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private Timer timer(String operation) {
+        return Timer.builder(METRIC)
+                .description("Time spent hashing or verifying a password")
+                .tag("operation", operation)
+                .tag("endpoint", EndpointTags.current())
+                .register(meterRegistry);
+    }
+}
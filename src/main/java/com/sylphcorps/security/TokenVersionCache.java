@@ -0,0 +1,44 @@
+package com.sylphcorps.security;
+
+import com.sylphcorps.config.CacheConfig;
+import com.sylphcorps.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Current token version per user id, so AuthTokenFilter can reject revoked
+ * tokens without querying the users table on every request.
+ *
+ * Deactivated and deleted users are cached as -1, which no token carries.
+ */
+@Component
+public class TokenVersionCache {
+
+    private static final int REVOKED = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public boolean isCurrent(Long userId, int version) {
+        Integer current = tokenVersions().get(userId,
+                () -> userRepository.findActiveTokenVersionById(userId).orElse(REVOKED));
+        return current != null && current != REVOKED && current == version;
+    }
+
+    /**
+     * Drops the cached version; the eviction is deferred until the current
+     * transaction commits.
+     */
+    public void invalidate(Long userId) {
+        tokenVersions().evict(userId);
+    }
+
+    private Cache tokenVersions() {
+        return cacheManager.getCache(CacheConfig.TOKEN_VERSIONS);
+    }
+}
@@ -1,5 +1,6 @@
 package com.sylphcorps.security;
 
+import com.sylphcorps.model.Role;
 import com.sylphcorps.model.User;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -14,6 +15,7 @@ public class UserDetailsImpl implements UserDetails {
     private String email;
     private String password;
     private String fullName;
+    private int tokenVersion;
 
     public String getFullName() {
         return fullName;
@@ -35,7 +37,7 @@ public class UserDetailsImpl implements UserDetails {
     public static UserDetailsImpl build(User user) {
         GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
 
-        return new UserDetailsImpl(
+        UserDetailsImpl details = new UserDetailsImpl(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -43,6 +45,30 @@ public class UserDetailsImpl implements UserDetails {
                 user.getFullName(),
                 Collections.singletonList(authority)
         );
+        details.tokenVersion = user.getTokenVersion();
+        return details;
+    }
+
+    /**
+     * Principal rebuilt from verified JWT claims. Carries no email, full name
+     * or password; load the User when those are needed.
+     */
+    public static UserDetailsImpl fromClaims(Long id, String username, Role role, int tokenVersion) {
+        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.name());
+
+        UserDetailsImpl details = new UserDetailsImpl(id, username, null, null, null,
+                Collections.singletonList(authority));
+        details.tokenVersion = tokenVersion;
+        return details;
+    }
+
+    public Role getRole() {
+        String authority = authorities.iterator().next().getAuthority();
+        return Role.valueOf(authority.substring("ROLE_".length()));
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
     }
 
     @Override
@@ -0,0 +1,157 @@
+package com.sylphcorps.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sylphcorps.dto.ArticleDTO;
+import com.sylphcorps.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk article import from NDJSON, one ArticleDTO per line.
+ *
+ * The body is read a line at a time, so only the current chunk is held in
+ * memory. Valid lines are inserted in chunks, each in its own transaction,
+ * with slugs allocated in bulk and ids drawn from the pooled sequence so
+ * Hibernate sends each chunk as JDBC batches. Lines that do not parse or
+ * validate are reported and skipped. If a chunk insert fails (say a slug
+ * taken concurrently on another node) its lines are retried one by one
+ * through ArticleService.createArticle, so only the offending lines fail.
+ */
+@Service
+public class ArticleImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleImportService.class);
+
+    // Bounds the report, not the import
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.articles.import.chunk-size:500}")
+    private int chunkSize;
+
+    public Result importArticles(InputStream ndjson, User author) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(ArticleDTO.class);
+        Result result = new Result();
+        List<ArticleDTO> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkLines = new ArrayList<>(chunkSize);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ArticleDTO articleDTO;
+                try {
+                    articleDTO = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    result.fail(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                String invalid = validate(articleDTO);
+                if (invalid != null) {
+                    result.fail(lineNumber, invalid);
+                    continue;
+                }
+                chunk.add(articleDTO);
+                chunkLines.add(lineNumber);
+                if (chunk.size() >= chunkSize) {
+                    insertChunk(chunk, chunkLines, author, result);
+                }
+            }
+        }
+        insertChunk(chunk, chunkLines, author, result);
+        logger.info("Imported {} articles for {}, {} lines failed", result.imported, author.getUsername(), result.failed);
+        return result;
+    }
+
+    private void insertChunk(List<ArticleDTO> chunk, List<Integer> chunkLines, User author, Result result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> articleService.createArticles(chunk, author));
+            result.imported += chunk.size();
+        } catch (RuntimeException e) {
+            logger.warn("Import chunk of {} failed, retrying its lines one by one: {}", chunk.size(), e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    articleService.createArticle(chunk.get(i), author.getUsername());
+                    result.imported++;
+                } catch (RuntimeException lineError) {
+                    result.fail(chunkLines.get(i), lineError.getMessage());
+                }
+            }
+        } finally {
+            chunk.clear();
+            chunkLines.clear();
+        }
+    }
+
+    private String validate(ArticleDTO articleDTO) {
+        Set<ConstraintViolation<ArticleDTO>> violations = validator.validate(articleDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    public static final class Result {
+        private int imported;
+        private int failed;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+
+        private void fail(int line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("line", line);
+                error.put("message", message);
+                errors.add(error);
+            }
+        }
+
+        public int getImported() { return imported; }
+
+        public int getFailed() { return failed; }
+
+        // The first MAX_REPORTED_ERRORS failures
+        public List<Map<String, Object>> getErrors() { return errors; }
+    }
+}
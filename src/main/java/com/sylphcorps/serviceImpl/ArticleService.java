@@ -2,38 +2,135 @@ package com.sylphcorps.serviceImpl;
 
 
 
+import com.sylphcorps.config.CacheConfig;
+import com.sylphcorps.config.ReplicaRoutingDataSource;
 import com.sylphcorps.dto.ArticleDTO;
+import com.sylphcorps.dto.ArticleRef;
+import com.sylphcorps.dto.ArticleSummary;
+import com.sylphcorps.dto.ArticleVersion;
+import com.sylphcorps.dto.CursorPage;
 import com.sylphcorps.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.sylphcorps.model.Article;
 import com.sylphcorps.model.User;
 import com.sylphcorps.repository.ArticleRepository;
+import com.sylphcorps.search.SearchBackend;
+import com.sylphcorps.serviceImpl.StatisticsService.ArticleState;
+import com.sylphcorps.utils.ArticleCursor;
+import com.sylphcorps.utils.TransactionCallbacks;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ArticleService {
 
+    // Fixed listing orders. Each ends with id, so rows sharing a timestamp
+    // keep one order across OFFSET pages, and each matches an index on Article
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "publishedAt", "id");
+    public static final Sort NEWEST_CREATED_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     @Autowired
     private ArticleRepository articleRepository;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ViewCountBuffer viewCountBuffer;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private SearchBackend searchBackend;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private SlugAllocator slugAllocator;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Last committed article write on this node, for listing Last-Modified headers
+    private volatile long lastWriteAt = System.currentTimeMillis();
+
+    // Committed slug evictions on this node, for fillSlugCache
+    private final AtomicLong slugEvictions = new AtomicLong();
+
+    // Each insert attempt runs in its own transaction so a slug collision can be retried
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Article createArticle(ArticleDTO articleDTO, String username) {
         User author = userService.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
 
+        return slugAllocator.insertWithUniqueSlug(articleDTO.getTitle(),
+                slug -> transactionTemplate.execute(status -> insertArticle(articleDTO, author, slug)));
+    }
+
+    /**
+     * Inserts the articles in the current transaction as one JDBC batch,
+     * with slugs allocated in bulk. Used by the bulk import; unlike
+     * createArticle a slug taken concurrently on another node fails the
+     * whole batch rather than being retried.
+     */
+    public List<Article> createArticles(List<ArticleDTO> articleDTOs, User author) {
+        List<String> titles = new ArrayList<>(articleDTOs.size());
+        for (ArticleDTO articleDTO : articleDTOs) {
+            titles.add(articleDTO.getTitle());
+        }
+        List<String> slugs = slugAllocator.allocateAll(titles);
+
+        List<Article> articles = new ArrayList<>(articleDTOs.size());
+        for (int i = 0; i < articleDTOs.size(); i++) {
+            articles.add(newArticle(articleDTOs.get(i), author, slugs.get(i)));
+        }
+        List<Article> saved = articleRepository.saveAll(articles);
+        articleRepository.flush();
+        for (Article article : saved) {
+            evictFromCache(article.getSlug());
+            reindex(article);
+            recordChange(null, article);
+        }
+        return saved;
+    }
+
+    private Article insertArticle(ArticleDTO articleDTO, User author, String slug) {
+        Article saved = articleRepository.saveAndFlush(newArticle(articleDTO, author, slug));
+        evictFromCache(saved.getSlug());
+        reindex(saved);
+        recordChange(null, saved);
+        return saved;
+    }
+
+    private Article newArticle(ArticleDTO articleDTO, User author, String slug) {
         Article article = new Article();
         article.setTitle(articleDTO.getTitle());
-        article.setSlug(generateSlug(articleDTO.getTitle()));
+        article.setSlug(slug);
         article.setExcerpt(articleDTO.getExcerpt());
         article.setContent(articleDTO.getContent());
         article.setImageUrl(articleDTO.getImageUrl());
@@ -46,8 +143,7 @@ public class ArticleService {
         if (articleDTO.isPublished()) {
             article.setPublishedAt(LocalDateTime.now());
         }
-
-        return articleRepository.save(article);
+        return article;
     }
 
     public Article updateArticle(Long id, ArticleDTO articleDTO, String username) {
@@ -62,8 +158,13 @@ public class ArticleService {
             throw new RuntimeException("You don't have permission to update this article");
         }
 
+        String oldSlug = article.getSlug();
+        ArticleState before = ArticleState.of(article);
         article.setTitle(articleDTO.getTitle());
-        article.setSlug(generateSlug(articleDTO.getTitle()));
+        // Keep the slug (and the article's URL) unless the title now maps to a different one
+        if (!SlugAllocator.isAllocatedFrom(oldSlug, SlugAllocator.normalize(articleDTO.getTitle()))) {
+            article.setSlug(slugAllocator.allocate(articleDTO.getTitle()));
+        }
         article.setExcerpt(articleDTO.getExcerpt());
         article.setContent(articleDTO.getContent());
         article.setImageUrl(articleDTO.getImageUrl());
@@ -78,136 +179,375 @@ public class ArticleService {
         article.setFeatured(articleDTO.isFeatured());
         article.setTrending(articleDTO.isTrending());
 
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        evictFromCache(oldSlug);
+        evictFromCache(saved.getSlug());
+        reindex(saved);
+        recordChange(before, saved);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public Article findById(Long id) {
-        return articleRepository.findById(id)
+        // Fills the second-level cache
+        return ReplicaRoutingDataSource.readFromPrimary(() -> articleRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Optional<Article> findBySlug(String slug) {
-        return articleRepository.findBySlug(slug);
+        Article cached = articlesBySlug().get(slug, Article.class);
+        if (cached != null) {
+            return Optional.of(withCurrentViews(cached));
+        }
+
+        long evictions = slugEvictions.get();
+        Optional<Article> article = ReplicaRoutingDataSource.readFromPrimary(() -> articleRepository.findBySlug(slug));
+        article.ifPresent(found -> fillSlugCache(slug, found, evictions));
+        return article.map(this::withCurrentViews);
+    }
+
+    /**
+     * The version of the article for conditional GETs: read from the slug
+     * cache when present, otherwise with a query that skips the content.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ArticleVersion> findVersionBySlug(String slug) {
+        Article cached = articlesBySlug().get(slug, Article.class);
+        if (cached != null) {
+            return Optional.of(ArticleVersion.of(withCurrentViews(cached)));
+        }
+        return articleRepository.findVersionBySlug(slug)
+                .map(version -> new ArticleVersion(version.getId(), version.getUpdatedAt(),
+                        viewCountBuffer.currentViewCount(version.getId(), version.getViewCount())));
     }
 
+    @Transactional(readOnly = true)
     public Article getArticleBySlug(String slug) {
-        return articleRepository.findBySlug(slug)
+        return findBySlug(slug)
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found with slug: " + slug));
     }
 
-    public Page<Article> getPublishedArticles(Pageable pageable) {
-        return articleRepository.findByIsPublishedTrue(pageable);
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getPublishedArticles(Pageable pageable) {
+        return withCurrentViews(articleRepository.findPublishedSummaries(pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getFeaturedArticles(Pageable pageable) {
+        return withCurrentViews(ReplicaRoutingDataSource.readFromPrimary(() -> articleRepository.findFeaturedSummaries(pageable)));
+    }
+
+    // Ranked by recent views; the manual isTrending flag is only a fallback
+    // until the trending engine has seen any views.
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getTrendingArticles(Pageable pageable) {
+        List<ArticleSummary> ranking = trendingService.getRanking();
+        if (ranking.isEmpty()) {
+            return withCurrentViews(ReplicaRoutingDataSource.readFromPrimary(() -> articleRepository.findTrendingSummaries(pageable)));
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranking.size());
+        int to = Math.min(from + pageable.getPageSize(), ranking.size());
+        return withCurrentViews(new PageImpl<>(ranking.subList(from, to), pageable, ranking.size()));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getLatestArticles(Pageable pageable) {
+        return withCurrentViews(articleRepository.findLatestSummaries(pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getMostViewedArticles(Pageable pageable) {
+        // The order is refreshed when its cached page expires; the counts shown are current
+        return withCurrentViews(ReplicaRoutingDataSource.readFromPrimary(() -> articleRepository.findMostViewedSummaries(pageable)));
     }
 
-    public Page<Article> getFeaturedArticles(Pageable pageable) {
-        return articleRepository.findByIsPublishedTrueAndIsFeaturedTrue(pageable);
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getArticlesByCategory(String category, Pageable pageable) {
+        return withCurrentViews(articleRepository.findSummariesByCategory(category, pageable));
     }
 
-    public Page<Article> getTrendingArticles(Pageable pageable) {
-        return articleRepository.findByIsPublishedTrueAndIsTrendingTrue(pageable);
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummary> scrollLatestArticles(String cursor, int size) {
+        ArticleCursor after = ArticleCursor.decodePublishedAt(cursor);
+        return withCurrentViews(byPublishedAt(articleRepository.findPublishedBefore(
+                after.getPublishedAt(), after.getId(), limit(size)), size));
     }
 
-    public Page<Article> getLatestArticles(Pageable pageable) {
-        return articleRepository.findLatestArticles(pageable);
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummary> scrollFeaturedArticles(String cursor, int size) {
+        ArticleCursor after = ArticleCursor.decodePublishedAt(cursor);
+        return withCurrentViews(byPublishedAt(articleRepository.findFeaturedBefore(
+                after.getPublishedAt(), after.getId(), limit(size)), size));
     }
 
-    public Page<Article> getMostViewedArticles(Pageable pageable) {
-        return articleRepository.findMostViewedArticles(pageable);
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummary> scrollTrendingArticles(String cursor, int size) {
+        List<ArticleSummary> ranking = trendingService.getRanking();
+        boolean ranked = cursor == null || cursor.isEmpty() ? !ranking.isEmpty() : ArticleCursor.isRank(cursor);
+        if (ranked) {
+            return withCurrentViews(scrollRanking(ranking, ArticleCursor.decodeRank(cursor), size));
+        }
+        ArticleCursor after = ArticleCursor.decodePublishedAt(cursor);
+        return withCurrentViews(byPublishedAt(articleRepository.findTrendingBefore(
+                after.getPublishedAt(), after.getId(), limit(size)), size));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummary> scrollArticlesByCategory(String category, String cursor, int size) {
+        ArticleCursor after = ArticleCursor.decodePublishedAt(cursor);
+        return withCurrentViews(byPublishedAt(articleRepository.findByCategoryBefore(
+                category, after.getPublishedAt(), after.getId(), limit(size)), size));
     }
 
-    public Page<Article> getArticlesByCategory(String category, Pageable pageable) {
-        return articleRepository.findByIsPublishedTrueAndCategory(category, pageable);
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummary> scrollMostViewedArticles(String cursor, int size) {
+        ArticleCursor after = ArticleCursor.decodeViewCount(cursor);
+        List<ArticleSummary> rows = articleRepository.findMostViewedBefore(after.getViewCount(), after.getId(), limit(size));
+        // The cursor keeps the stored count, which is what the keyset compares
+        return withCurrentViews(toCursorPage(rows, size,
+                last -> ArticleCursor.encodeViewCount(last.getViewCount(), last.getId())));
     }
 
-    public Page<Article> getArticlesByAuthor(User author, Pageable pageable) {
-        return articleRepository.findByAuthor(author, pageable);
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getArticlesByAuthor(User author, Pageable pageable) {
+        return withCurrentViews(articleRepository.findSummariesByAuthor(author, pageable));
     }
 
-    public Page<Article> getPublishedArticlesByAuthor(User author, Pageable pageable) {
-        return articleRepository.findByAuthorAndIsPublishedTrue(author, pageable);
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getPublishedArticlesByAuthor(User author, Pageable pageable) {
+        return withCurrentViews(articleRepository.findPublishedSummariesByAuthor(author, pageable));
     }
 
-    public Page<Article> getAllArticles(Pageable pageable) {
-        return articleRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getAllArticles(Pageable pageable) {
+        return withCurrentViews(articleRepository.findAllSummaries(pageable));
     }
 
-    public Page<Article> searchArticles(String searchTerm, Pageable pageable) {
-        return articleRepository.findBySearchTerm(searchTerm, pageable);
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> searchArticles(String searchTerm, Pageable pageable) {
+        Page<Long> ids = searchBackend.search(searchTerm, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, ArticleSummary> byId = articleRepository.findSummariesByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(ArticleSummary::getId, Function.identity()));
+
+        // Keep the backend's relevance order
+        List<ArticleSummary> articles = new ArrayList<>(ids.getNumberOfElements());
+        for (Long id : ids) {
+            ArticleSummary article = byId.get(id);
+            if (article != null) {
+                articles.add(withCurrentViews(article));
+            }
+        }
+        return new PageImpl<>(articles, pageable, ids.getTotalElements());
     }
 
+    @Transactional(readOnly = true)
     public List<String> getAllCategories() {
-        return articleRepository.findDistinctCategories();
+        return ReplicaRoutingDataSource.readFromPrimary(articleRepository::findDistinctCategories);
     }
 
     public Article publishArticle(Long id) {
         Article article = findById(id);
+        ArticleState before = ArticleState.of(article);
         article.setPublished(true);
         article.setPublishedAt(LocalDateTime.now());
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        evictFromCache(saved.getSlug());
+        reindex(saved);
+        recordChange(before, saved);
+        return saved;
     }
 
     public Article unpublishArticle(Long id) {
         Article article = findById(id);
+        ArticleState before = ArticleState.of(article);
         article.setPublished(false);
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        evictFromCache(saved.getSlug());
+        reindex(saved);
+        recordChange(before, saved);
+        TransactionCallbacks.afterCommit(() -> trendingService.remove(id));
+        return saved;
     }
 
     public Article setFeatured(Long id, boolean featured) {
         Article article = findById(id);
         article.setFeatured(featured);
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        evictFromCache(saved.getSlug());
+        return saved;
     }
 
     public Article setTrending(Long id, boolean trending) {
         Article article = findById(id);
         article.setTrending(trending);
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        evictFromCache(saved.getSlug());
+        return saved;
     }
 
     public void deleteArticle(Long id) {
         Article article = findById(id);
+        ArticleState before = ArticleState.of(article);
         articleRepository.delete(article);
+        evictFromCache(article.getSlug());
+        // A rolled back delete keeps the article and so its buffered views
+        TransactionCallbacks.afterCommit(() -> viewCountBuffer.discard(id));
+        TransactionCallbacks.afterCommit(() -> searchBackend.remove(id));
+        TransactionCallbacks.afterCommit(() -> statisticsService.articleChanged(before, null));
+        TransactionCallbacks.afterCommit(() -> trendingService.remove(id));
     }
 
-    public Article incrementViewCount(String slug) {
-        Article article = getArticleBySlug(slug);
-        article.incrementViewCount();
-        return articleRepository.save(article);
+    @Transactional(readOnly = true)
+    public void incrementViewCount(String slug) {
+        // Only the id is needed: take it from the slug cache when the article
+        // is there, otherwise query it without loading (or caching) the content
+        Article cached = articlesBySlug().get(slug, Article.class);
+        ArticleRef article = cached != null ? new ArticleRef(cached.getId(), cached.isPublished())
+                : articleRepository.findRefBySlug(slug)
+                        .orElseThrow(() -> new ResourceNotFoundException("Article not found with slug: " + slug));
+        viewCountBuffer.increment(article.getId());
+        if (article.isPublished()) {
+            trendingService.recordView(article.getId());
+        }
     }
 
-    public Page<Article> getAllPublishedArticles(Pageable pageable) {
-        return articleRepository.findByIsPublishedTrue(pageable);
+    @Transactional(readOnly = true)
+    public Page<ArticleSummary> getAllPublishedArticles(Pageable pageable) {
+        return withCurrentViews(articleRepository.findPublishedSummaries(pageable));
     }
 
+    // Counts are kept in memory by StatisticsService, so no transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Long getArticleCountByAuthor(User author) {
-        return articleRepository.countByAuthor(author);
+        return statisticsService.getArticleCountByAuthor(author.getId());
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Long getPublishedArticleCountByAuthor(User author) {
-        return articleRepository.countByAuthorAndIsPublishedTrue(author);
+        return statisticsService.getPublishedArticleCountByAuthor(author.getId());
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public long getTotalArticleCount() {
-        return articleRepository.count();
+        return statisticsService.getTotalArticleCount();
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public long getPublishedArticleCount() {
-        return articleRepository.findByIsPublishedTrue(Pageable.unpaged()).getTotalElements();
+        return statisticsService.getPublishedArticleCount();
+    }
+
+    /**
+     * The last time any listing could have changed order on this node: an
+     * article write or a new trending order. View count flushes only change
+     * the counts shown, which snapshots pick up at their max-age.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long getListingsModifiedAt() {
+        return Math.max(lastWriteAt, trendingService.getRankedAt());
+    }
+
+    // One extra row tells us whether there is a next page without counting
+    private static Pageable limit(int size) {
+        return PageRequest.of(0, size + 1);
     }
 
-    private String generateSlug(String title) {
-        String slug = title.toLowerCase()
-                .replaceAll("[^a-z0-9\\s-]", "")
-                .replaceAll("\\s+", "-")
-                .replaceAll("-+", "-");
+    private static CursorPage<ArticleSummary> byPublishedAt(List<ArticleSummary> rows, int size) {
+        return toCursorPage(rows, size, last -> ArticleCursor.encodePublishedAt(last.getPublishedAt(), last.getId()));
+    }
+
+    // The ranking changes between requests, so resume after the last id if it is
+    // still ranked and fall back to its old position otherwise
+    private static CursorPage<ArticleSummary> scrollRanking(List<ArticleSummary> ranking, ArticleCursor after, int size) {
+        int from = Math.min(after.getRank(), ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            if (ranking.get(i).getId().equals(after.getId())) {
+                from = i + 1;
+                break;
+            }
+        }
+        int to = Math.min(from + size, ranking.size());
+        String next = to < ranking.size() ? ArticleCursor.encodeRank(to, ranking.get(to - 1).getId()) : null;
+        return new CursorPage<>(ranking.subList(from, to), next, size);
+    }
 
-        // Ensure slug is unique
-        String originalSlug = slug;
-        int counter = 1;
-        while (articleRepository.existsBySlug(slug)) {
-            slug = originalSlug + "-" + counter++;
+    private static CursorPage<ArticleSummary> toCursorPage(List<ArticleSummary> rows, int size,
+                                                            Function<ArticleSummary, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, size);
         }
+        List<ArticleSummary> content = rows.subList(0, size);
+        return new CursorPage<>(content, cursorOf.apply(content.get(size - 1)), size);
+    }
+
+    // Cached copies keep the view count they were loaded with; overlay the
+    // count of the last flush, see ViewCountBuffer. Cached instances are
+    // shared between requests, so the overlay goes on a copy.
+    private Article withCurrentViews(Article article) {
+        long current = viewCountBuffer.currentViewCount(article.getId(), article.getViewCount());
+        return article.getViewCount() != null && current == article.getViewCount()
+                ? article : article.copyWithViewCount(current);
+    }
+
+    // Every summary listing goes through one of these, so cards never show an
+    // older count than the article page
+    private ArticleSummary withCurrentViews(ArticleSummary summary) {
+        long current = viewCountBuffer.currentViewCount(summary.getId(), summary.getViewCount());
+        return summary.getViewCount() != null && current == summary.getViewCount()
+                ? summary : summary.copyWithViewCount(current);
+    }
+
+    private Page<ArticleSummary> withCurrentViews(Page<ArticleSummary> page) {
+        return page.map(this::withCurrentViews);
+    }
+
+    private CursorPage<ArticleSummary> withCurrentViews(CursorPage<ArticleSummary> page) {
+        List<ArticleSummary> content = page.getContent().stream()
+                .map(this::withCurrentViews)
+                .collect(Collectors.toList());
+        return new CursorPage<>(content, page.getNextCursor(), page.getSize());
+    }
+
+    private Cache articlesBySlug() {
+        return cacheManager.getCache(CacheConfig.ARTICLES_BY_SLUG);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentMap<Object, Object> articlesBySlugMap() {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) articlesBySlug().getNativeCache()).asMap();
+    }
+
+    /**
+     * Caches an article read from the database, unless a slug was evicted
+     * since the read began: the row may predate that write, and putting it
+     * back would serve it until it expires. The check runs inside compute, so
+     * an eviction of this slug cannot land between the check and the put.
+     */
+    private void fillSlugCache(String slug, Article article, long evictionsBeforeRead) {
+        articlesBySlugMap().compute(slug,
+                (key, current) -> slugEvictions.get() == evictionsBeforeRead ? article : current);
+    }
+
+    // Every article write goes through here, so it also advances lastWriteAt.
+    // slugEvictions is bumped before the entry goes, see fillSlugCache
+    private void evictFromCache(String slug) {
+        TransactionCallbacks.afterCommit(() -> {
+            slugEvictions.incrementAndGet();
+            articlesBySlugMap().remove(slug);
+            lastWriteAt = System.currentTimeMillis();
+        });
+    }
+
+    private void reindex(Article article) {
+        TransactionCallbacks.afterCommit(() -> searchBackend.index(article));
+    }
 
-        return slug;
+    private void recordChange(ArticleState before, Article after) {
+        ArticleState afterState = ArticleState.of(after);
+        TransactionCallbacks.afterCommit(() -> statisticsService.articleChanged(before, afterState));
     }
 }
\ No newline at end of file
@@ -0,0 +1,326 @@
+package com.sylphcorps.serviceImpl;
+
+import com.sylphcorps.model.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the database with a synthetic corpus of users and articles at
+ * production scale, then exits. Runs only under the "corpus" profile
+ * (see application-corpus.properties):
+ *
+ * java -jar app.jar --spring.profiles.active=corpus --app.corpus.users=2000000 --app.corpus.articles=5000000
+ *
+ * Rows are written with batched JDBC inserts from several threads, one
+ * transaction per batch, bypassing JPA. The shape follows production:
+ * - roles: 90% USER, 9% AUTHOR, 1% ADMIN; a few authors write most articles;
+ * - title word counts are normal, content sizes log-normal (median ~4.5 KB);
+ * - categories follow a Zipf distribution;
+ * - 85% of articles are published; 3% of those are featured and 5% trending;
+ * - view counts of published articles follow a Pareto power law.
+ *
+ * Every user gets the same password (app.corpus.password), hashed once at
+ * the configured BCrypt cost. Output is reproducible for a given seed.
+ * Existing rows are kept; clashing usernames or slugs are skipped.
+ */
+@Component
+@Profile("corpus")
+public class CorpusGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CorpusGenerator.class);
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, password, full_name, bio, role, is_active, token_version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?) ON CONFLICT DO NOTHING";
+
+    // Ids from the sequence Hibernate allocates from, one nextval per row. This
+    // depends on the id settings: the sequence increments by 50 (V2 migration)
+    // and hibernate.id.optimizer.pooled.preferred=pooled-lo (application.properties)
+    // makes Hibernate use a value v as the block v..v+49, which holds no other
+    // value of the sequence. Each value is consumed once, by Hibernate or by one
+    // row here, so the ids never collide. Revisit this if either setting changes.
+    private static final String INSERT_ARTICLE_SQL =
+            "INSERT INTO articles (id, title, slug, excerpt, content, image_url, category, is_published, is_featured, " +
+            "is_trending, view_count, published_at, author_id, created_at, updated_at) " +
+            "VALUES (nextval('articles_id_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String[] CATEGORIES = {
+            "politics", "world", "business", "technology", "sports", "entertainment", "science", "health",
+            "opinion", "local", "culture", "travel", "food", "education", "environment", "automotive",
+            "real-estate", "fashion", "gaming", "religion"
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Ben", "Chloe", "David", "Elena", "Farid", "Grace", "Hiro", "Ines", "Jonas",
+            "Kemi", "Liam", "Maya", "Noah", "Olga", "Pedro", "Quinn", "Rosa", "Sami", "Tara"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Andersen", "Barros", "Chen", "Dubois", "Eze", "Fischer", "Garcia", "Haddad", "Ivanova", "Jensen",
+            "Kowalski", "Lopez", "Moreau", "Nakamura", "Okafor", "Patel", "Rossi", "Silva", "Tanaka", "Weber"
+    };
+
+    private static final String[] WORDS = {
+            "council", "budget", "market", "election", "storm", "coast", "league", "final", "court", "ruling",
+            "energy", "prices", "school", "hospital", "research", "startup", "festival", "museum", "transit",
+            "housing", "climate", "report", "minister", "trade", "vaccine", "city", "record", "growth", "talks",
+            "deal", "strike", "season", "team", "coach", "fans", "river", "flood", "wildfire", "drought",
+            "harvest", "farmers", "bank", "rates", "inflation", "jobs", "workers", "union", "airport", "rail",
+            "bridge", "tunnel", "mayor", "police", "judge", "jury", "trial", "verdict", "scientists", "study",
+            "patients", "doctors", "nurses", "students", "teachers", "university", "award", "film", "album",
+            "concert", "gallery", "novel", "author", "chef", "restaurant", "recipe", "travel", "island",
+            "mountain", "village", "district", "neighbourhood", "park", "stadium", "championship", "victory",
+            "defeat", "plan", "policy", "reform", "protest", "vote", "campaign", "survey", "data", "software",
+            "network", "satellite", "launch", "engine", "battery", "solar", "wind", "ocean", "species", "forest"
+    };
+
+    private static final String[] CONNECTORS = {
+            "the", "a", "of", "in", "on", "for", "with", "after", "before", "as", "and", "over", "amid", "to"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${app.corpus.users:1000000}")
+    private long users;
+
+    @Value("${app.corpus.articles:1000000}")
+    private long articles;
+
+    @Value("${app.corpus.batch-size:1000}")
+    private int batchSize;
+
+    // 0 means one per processor, capped by the connection pool
+    @Value("${app.corpus.threads:0}")
+    private int threads;
+
+    @Value("${app.corpus.seed:42}")
+    private long seed;
+
+    @Value("${app.corpus.password:password123}")
+    private String password;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    // Off to keep the app running on the new corpus
+    @Value("${app.corpus.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int workers = threads > 0 ? threads : Math.min(Runtime.getRuntime().availableProcessors(), poolSize - 1);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, workers));
+        try {
+            long start = System.nanoTime();
+            String passwordHash = passwordEncoder.encode(password);
+            long firstUser = count("users");
+
+            insertAll(executor, "users", users, (batch, from, to) -> insertUsers(batch, from, to, firstUser, passwordHash));
+
+            long[] authorIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM users WHERE role IN ('AUTHOR', 'ADMIN') ORDER BY id", Long.class)
+                    .stream().mapToLong(Long::longValue).toArray();
+            if (authorIds.length == 0) {
+                throw new IllegalStateException("No AUTHOR or ADMIN users to attribute articles to");
+            }
+            long firstArticle = count("articles");
+            insertAll(executor, "articles", articles, (batch, from, to) -> insertArticles(batch, from, to, firstArticle, authorIds));
+
+            analyze();
+            statisticsService.reconcile();
+            logger.info("Corpus of {} users and {} articles generated in {} s",
+                    users, articles, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        } finally {
+            executor.shutdownNow();
+        }
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    private interface BatchWriter {
+        void write(long batch, long from, long to);
+    }
+
+    private void insertAll(ExecutorService executor, String table, long total, BatchWriter writer)
+            throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        long batches = (total + batchSize - 1) / batchSize;
+        AtomicLong written = new AtomicLong();
+        long logEvery = Math.max(1, batches / 20);
+        List<Future<?>> futures = new ArrayList<>();
+        for (long batch = 0; batch < batches; batch++) {
+            long from = batch * batchSize;
+            long to = Math.min(from + batchSize, total);
+            long current = batch;
+            futures.add(executor.submit(() -> {
+                writer.write(current, from, to);
+                long done = written.addAndGet(to - from);
+                if (current % logEvery == 0) {
+                    double seconds = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+                    logger.info("{}: {}/{} rows ({} rows/s)", table, done, total, Math.round(done / seconds));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        logger.info("{}: {} rows in {} ms", table, total, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void insertUsers(long batch, long from, long to, long offset, String passwordHash) {
+        SplittableRandom random = new SplittableRandom(seed * 31 + batch);
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long i = from; i < to; i++) {
+            long n = offset + i;
+            double roll = random.nextDouble();
+            Role role = roll < 0.01 ? Role.ADMIN : roll < 0.10 ? Role.AUTHOR : Role.USER;
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            Timestamp createdAt = Timestamp.valueOf(daysAgo(random, 3 * 365));
+            String bio = role != Role.USER || random.nextDouble() < 0.2 ? sentence(random, 8 + random.nextInt(30)) : null;
+            rows.add(new Object[]{
+                    "user_" + n, "user_" + n + "@corpus.example", passwordHash, first + " " + last, bio,
+                    role.name(), random.nextDouble() < 0.97, createdAt, createdAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows);
+    }
+
+    private void insertArticles(long batch, long from, long to, long offset, long[] authorIds) {
+        SplittableRandom random = new SplittableRandom(seed * 17 + batch);
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long i = from; i < to; i++) {
+            String title = title(random);
+            boolean published = random.nextDouble() < 0.85;
+            LocalDateTime createdAt = daysAgo(random, 3 * 365);
+            LocalDateTime publishedAt = published ? createdAt.plusMinutes(random.nextInt(48 * 60)) : null;
+            LocalDateTime updatedAt = random.nextDouble() < 0.3 ? createdAt.plusHours(random.nextInt(24 * 30)) : createdAt;
+            rows.add(new Object[]{
+                    title,
+                    // Unique without a lookup; still matches SlugAllocator's base-N form
+                    SlugAllocator.normalize(title) + "-" + (offset + i + 1),
+                    sentence(random, 25 + random.nextInt(30)),
+                    content(random),
+                    random.nextDouble() < 0.7 ? "https://cdn.corpus.example/images/" + (offset + i) + ".jpg" : null,
+                    CATEGORIES[zipf(random, CATEGORIES.length, 1.1)],
+                    published,
+                    published && random.nextDouble() < 0.03,
+                    published && random.nextDouble() < 0.05,
+                    published ? pareto(random, 20, 1.2) : 0L,
+                    publishedAt == null ? null : Timestamp.valueOf(publishedAt),
+                    // Skewed towards the first authors: a few write most of the articles
+                    authorIds[(int) (authorIds.length * Math.pow(random.nextDouble(), 3))],
+                    Timestamp.valueOf(createdAt),
+                    Timestamp.valueOf(updatedAt)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ARTICLE_SQL, rows);
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    // Fresh planner statistics, so EXPLAIN reflects the new row counts
+    private void analyze() {
+        try {
+            jdbcTemplate.execute("ANALYZE users");
+            jdbcTemplate.execute("ANALYZE articles");
+        } catch (RuntimeException e) {
+            logger.warn("Could not analyze the corpus tables: {}", e.getMessage());
+        }
+    }
+
+    private static String title(SplittableRandom random) {
+        int words = (int) Math.max(3, Math.min(20, Math.round(9 + 3 * gaussian(random))));
+        String title = sentence(random, words);
+        title = Character.toUpperCase(title.charAt(0)) + title.substring(1);
+        return title.length() > 200 ? title.substring(0, 200) : title;
+    }
+
+    // Log-normal, median about 4.5 KB, capped at 100 KB
+    private static String content(SplittableRandom random) {
+        int chars = (int) Math.min(100_000, Math.exp(Math.log(4_500) + 0.7 * gaussian(random)));
+        StringBuilder content = new StringBuilder(chars + 200);
+        while (content.length() < chars) {
+            String sentence = sentence(random, 8 + random.nextInt(20));
+            content.append(Character.toUpperCase(sentence.charAt(0))).append(sentence, 1, sentence.length()).append('.');
+            content.append(random.nextInt(6) == 0 ? "\n\n" : " ");
+        }
+        return content.toString();
+    }
+
+    private static String sentence(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            String[] pool = i % 3 == 1 ? CONNECTORS : WORDS;
+            text.append(pool[random.nextInt(pool.length)]);
+        }
+        return text.toString();
+    }
+
+    private static LocalDateTime daysAgo(SplittableRandom random, int maxDays) {
+        return LocalDateTime.now().minusMinutes(random.nextLong(maxDays * 24L * 60L));
+    }
+
+    // Index 0..n-1 with P(k) proportional to 1/(k+1)^s, by inverting the CDF
+    private static int zipf(SplittableRandom random, int n, double s) {
+        double norm = 0;
+        for (int k = 1; k <= n; k++) {
+            norm += 1 / Math.pow(k, s);
+        }
+        double target = random.nextDouble() * norm;
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1 / Math.pow(k, s);
+            if (sum >= target) {
+                return k - 1;
+            }
+        }
+        return n - 1;
+    }
+
+    private static long pareto(SplittableRandom random, double scale, double shape) {
+        return (long) Math.min(50_000_000, scale / Math.pow(1 - random.nextDouble(), 1 / shape));
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
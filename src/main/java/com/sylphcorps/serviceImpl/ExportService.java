@@ -0,0 +1,270 @@
+package com.sylphcorps.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sylphcorps.exception.GlobalExceptionHandler.BadRequestException;
+import com.sylphcorps.model.Article;
+import com.sylphcorps.model.User;
+import com.sylphcorps.repository.ArticleRepository;
+import com.sylphcorps.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Full-table exports of articles and users as NDJSON or CSV.
+ *
+ * Rows are read through a repository Stream (a JDBC cursor with a fetch
+ * size, inside a read-only transaction) and each entity is detached once
+ * written, so heap use does not grow with the table. Output is flushed
+ * every FLUSH_EVERY rows to keep the client receiving. Both formats carry
+ * the same columns; passwords and token versions are never exported.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int FLUSH_EVERY = 1000;
+
+    public enum Format {
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+        CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String getExtension() { return extension; }
+
+        public MediaType getMediaType() { return mediaType; }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported export format: " + value + " (use ndjson or csv)");
+            }
+        }
+    }
+
+    private static final List<Column<Article>> ARTICLE_COLUMNS = List.of(
+            new Column<>("id", Article::getId),
+            new Column<>("slug", Article::getSlug),
+            new Column<>("title", Article::getTitle),
+            new Column<>("excerpt", Article::getExcerpt),
+            new Column<>("content", Article::getContent),
+            new Column<>("imageUrl", Article::getImageUrl),
+            new Column<>("category", Article::getCategory),
+            new Column<>("published", Article::isPublished),
+            new Column<>("featured", Article::isFeatured),
+            new Column<>("trending", Article::isTrending),
+            new Column<>("viewCount", Article::getViewCount),
+            new Column<>("publishedAt", Article::getPublishedAt),
+            new Column<>("authorId", article -> article.getAuthor() == null ? null : article.getAuthor().getId()),
+            new Column<>("authorUsername", article -> article.getAuthor() == null ? null : article.getAuthor().getUsername()),
+            new Column<>("createdAt", Article::getCreatedAt),
+            new Column<>("updatedAt", Article::getUpdatedAt));
+
+    private static final List<Column<User>> USER_COLUMNS = List.of(
+            new Column<>("id", User::getId),
+            new Column<>("username", User::getUsername),
+            new Column<>("email", User::getEmail),
+            new Column<>("fullName", User::getFullName),
+            new Column<>("bio", User::getBio),
+            new Column<>("role", User::getRole),
+            new Column<>("active", User::isActive),
+            new Column<>("createdAt", User::getCreatedAt),
+            new Column<>("updatedAt", User::getUpdatedAt));
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    public void init() {
+        readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+    }
+
+    public long exportArticles(Format format, OutputStream out) {
+        return export("articles", articleRepository::streamAllForExport, ARTICLE_COLUMNS, article -> {
+            entityManager.detach(article);
+            if (article.getAuthor() != null) {
+                entityManager.detach(article.getAuthor());
+            }
+        }, format, out);
+    }
+
+    public long exportUsers(Format format, OutputStream out) {
+        return export("users", userRepository::streamAllForExport, USER_COLUMNS,
+                entityManager::detach, format, out);
+    }
+
+    private <T> long export(String name, Supplier<Stream<T>> query, List<Column<T>> columns,
+                            Consumer<T> detach, Format format, OutputStream out) {
+        Long rows = readOnly.execute(status -> {
+            try (Stream<T> stream = query.get()) {
+                RowWriter<T> writer = format == Format.CSV ? new CsvWriter<>(columns, out) : new NdjsonWriter<>(columns, out);
+                long written = 0;
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    T row = iterator.next();
+                    writer.write(row);
+                    detach.accept(row);
+                    if (++written % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.close();
+                return written;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        logger.info("Exported {} {} as {}", rows, name, format);
+        return rows == null ? 0 : rows;
+    }
+
+    private static final class Column<T> {
+        private final String name;
+        private final Function<T, Object> value;
+
+        private Column(String name, Function<T, Object> value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+
+        void flush() throws IOException;
+
+        // Flushes; the response stream itself is closed by Spring
+        void close() throws IOException;
+    }
+
+    private final class NdjsonWriter<T> implements RowWriter<T> {
+        private final List<Column<T>> columns;
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(List<Column<T>> columns, OutputStream out) throws IOException {
+            this.columns = columns;
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (Column<T> column : columns) {
+                generator.writeFieldName(column.name);
+                generator.writeObject(column.value.apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter<T> implements RowWriter<T> {
+        private final List<Column<T>> columns;
+        private final Writer writer;
+
+        private CsvWriter(List<Column<T>> columns, OutputStream out) throws IOException {
+            this.columns = columns;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns.get(i).name);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value.apply(row);
+                if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180: quote fields containing a separator, quote or line break
+        private static String escape(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return '"' + value.replace("\"", "\"\"") + '"';
+                }
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.sylphcorps.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sylphcorps.config.ReplicaRoutingDataSource;
+import com.sylphcorps.dto.ArticleSummary;
+import com.sylphcorps.utils.HttpValidators;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Homepage feeds kept as ready-to-write JSON.
+ *
+ * The first few pages of the featured, trending and latest feeds (at the
+ * default page size) and the category list are serialized once, gzipped,
+ * and served as byte arrays, so a homepage hit neither queries nor
+ * serializes. Snapshots are rebuilt off the request path whenever
+ * ArticleService reports that listings changed (article writes, trending
+ * reorders), and at least every max-age to pick up writes made on other
+ * nodes and the view counts flushed since.
+ */
+@Service
+public class FeedSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedSnapshotService.class);
+
+    public enum Feed { FEATURED, TRENDING, LATEST, CATEGORIES }
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.feeds.pages:3}")
+    private int pages;
+
+    @Value("${app.feeds.page-size:10}")
+    private int pageSize;
+
+    @Value("${app.feeds.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    private volatile Map<Feed, List<Snapshot>> snapshots = Collections.emptyMap();
+    private volatile long builtFrom = -1;
+    private volatile long builtAt;
+
+    /**
+     * The snapshot for this page, if it is one of the pre-built ones.
+     */
+    public Optional<Snapshot> get(Feed feed, int page, int size) {
+        if (size != pageSize) {
+            return Optional.empty();
+        }
+        List<Snapshot> feedPages = snapshots.get(feed);
+        if (feedPages == null || page < 0 || page >= feedPages.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(feedPages.get(page));
+    }
+
+    /**
+     * The snapshot of an unpaged feed.
+     */
+    public Optional<Snapshot> get(Feed feed) {
+        List<Snapshot> feedPages = snapshots.get(feed);
+        return feedPages == null ? Optional.empty() : Optional.of(feedPages.get(0));
+    }
+
+    @Scheduled(fixedDelayString = "${app.feeds.check-interval-ms:1000}")
+    public void refreshIfStale() {
+        // Read the clock before querying, so a write racing the rebuild
+        // leaves the snapshot marked stale for the next check
+        long modifiedAt = articleService.getListingsModifiedAt();
+        long now = System.currentTimeMillis();
+        if (modifiedAt == builtFrom && now - builtAt < maxAgeMs) {
+            return;
+        }
+        try {
+            // builtFrom claims the snapshots include every write up to
+            // modifiedAt, which a lagging replica cannot promise
+            snapshots = ReplicaRoutingDataSource.readFromPrimary(() -> rebuild(modifiedAt));
+            builtFrom = modifiedAt;
+            builtAt = now;
+        } catch (RuntimeException e) {
+            logger.warn("Could not rebuild feed snapshots", e);
+        }
+    }
+
+    private Map<Feed, List<Snapshot>> rebuild(long modifiedAt) {
+        Map<Feed, List<Snapshot>> fresh = new EnumMap<>(Feed.class);
+        Snapshot[] featured = new Snapshot[pages];
+        Snapshot[] trending = new Snapshot[pages];
+        Snapshot[] latest = new Snapshot[pages];
+        for (int page = 0; page < pages; page++) {
+            featured[page] = snapshot(articleService.getFeaturedArticles(PageRequest.of(page, pageSize, ArticleService.NEWEST_FIRST)), modifiedAt);
+            trending[page] = snapshot(articleService.getTrendingArticles(PageRequest.of(page, pageSize, ArticleService.NEWEST_FIRST)), modifiedAt);
+            latest[page] = snapshot(articleService.getLatestArticles(PageRequest.of(page, pageSize)), modifiedAt);
+        }
+        fresh.put(Feed.FEATURED, List.of(featured));
+        fresh.put(Feed.TRENDING, List.of(trending));
+        fresh.put(Feed.LATEST, List.of(latest));
+        // Categories are not paged, so page 0 is the whole list
+        fresh.put(Feed.CATEGORIES, List.of(snapshot(articleService.getAllCategories(), modifiedAt)));
+        logger.debug("Rebuilt feed snapshots");
+        return fresh;
+    }
+
+    private Snapshot snapshot(Page<ArticleSummary> page, long modifiedAt) {
+        return snapshot((Object) page, HttpValidators.lastModified(page.getContent(), modifiedAt));
+    }
+
+    private Snapshot snapshot(Object body, long lastModified) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] gzipped = gzip(json);
+            // Tiny bodies grow when gzipped; those are only served plain
+            return new Snapshot(json, gzipped.length < json.length ? gzipped : null, lastModified);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize feed snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * One serialized feed page. The ETag is a hash of the JSON, with a
+     * distinct value for the gzipped representation.
+     */
+    public static final class Snapshot {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private final long lastModified;
+
+        private Snapshot(byte[] json, byte[] gzip, long lastModified) {
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = DigestUtils.md5DigestAsHex(json);
+            this.lastModified = lastModified;
+        }
+
+        public byte[] getJson() { return json; }
+
+        // Null when gzip would not make the body smaller
+        public byte[] getGzip() { return gzip; }
+
+        public String getEtag(boolean gzipped) {
+            return "\"" + etag + (gzipped ? "-gzip" : "") + "\"";
+        }
+
+        public long getLastModified() { return lastModified; }
+    }
+}
@@ -0,0 +1,81 @@
+package com.sylphcorps.serviceImpl;
+
+import com.sylphcorps.exception.GlobalExceptionHandler.ServiceUnavailableException;
+import com.sylphcorps.utils.EndpointTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the BCrypt-bound parts of sign-in and sign-up on a small, fixed pool
+ * instead of on Tomcat's request threads.
+ *
+ * The pool has a bounded queue. When both are full the request is refused
+ * with 503 at once rather than piling up behind a backlog of hashes that
+ * would time out anyway, and the rest of the API keeps its threads.
+ * Queue depth and pool usage are exported as executor.* metrics tagged
+ * name=passwordHashing; hash latency is recorded by TimedPasswordEncoder.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    public static final String EXECUTOR_NAME = "passwordHashing";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means one thread per available processor
+    @Value("${app.security.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.security.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        logger.info("Password hashing pool: {} threads, queue of {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs the task on the hashing pool.
+     *
+     * @throws ServiceUnavailableException when the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(EndpointTags.propagate(task), executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Authentication service is busy, please retry");
+        }
+    }
+}
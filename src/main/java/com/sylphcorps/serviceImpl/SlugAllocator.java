@@ -0,0 +1,198 @@
+package com.sylphcorps.serviceImpl;
+
+import com.sylphcorps.repository.ArticleRepository;
+import com.sylphcorps.utils.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Allocates unique article slugs.
+ *
+ * The next free "-N" suffix is found with a single prefix query. Slugs
+ * handed out but not yet committed are held in an in-process reservation
+ * set so concurrent creates in this JVM never pick the same one, and
+ * insertWithUniqueSlug retries on a unique-constraint violation to cover
+ * writers on other nodes.
+ *
+ * The prefix query, the reservation and its release after commit all run
+ * under a lock striped by base slug; otherwise a query that ran just before
+ * another thread's commit could pick that thread's slug right after it was
+ * released.
+ */
+@Component
+public class SlugAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlugAllocator.class);
+
+    private static final Pattern INVALID_CHARS = Pattern.compile("[^a-z0-9\\s-]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern REPEATED_HYPHENS = Pattern.compile("-+");
+    private static final Pattern EDGE_HYPHENS = Pattern.compile("^-|-$");
+
+    private static final String FALLBACK_SLUG = "article";
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Set<String> reserved = ConcurrentHashMap.newKeySet();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public static String normalize(String title) {
+        String slug = INVALID_CHARS.matcher(title.toLowerCase(Locale.ROOT)).replaceAll("");
+        slug = WHITESPACE.matcher(slug).replaceAll("-");
+        slug = REPEATED_HYPHENS.matcher(slug).replaceAll("-");
+        slug = EDGE_HYPHENS.matcher(slug).replaceAll("");
+        return slug.isEmpty() ? FALLBACK_SLUG : slug;
+    }
+
+    /**
+     * Whether the slug was allocated from this base, i.e. is the base itself
+     * or the base with a numeric suffix.
+     */
+    public static boolean isAllocatedFrom(String slug, String base) {
+        if (slug == null || !slug.startsWith(base)) {
+            return false;
+        }
+        if (slug.length() == base.length()) {
+            return true;
+        }
+        return slug.charAt(base.length()) == '-' && parseSuffix(slug.substring(base.length() + 1)) > 0;
+    }
+
+    /**
+     * Runs the insert with a freshly allocated slug, retrying with a new slug
+     * if it fails on a unique-constraint violation. The insert must run (and
+     * commit) its own transaction, since a failed statement poisons it.
+     */
+    public <T> T insertWithUniqueSlug(String title, Function<String, T> insert) {
+        String base = normalize(title);
+        for (int attempt = 1; ; attempt++) {
+            String slug = reserve(base);
+            try {
+                return insert.apply(slug);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Slug {} was taken concurrently, retrying", slug);
+            } finally {
+                release(base, slug);
+            }
+        }
+    }
+
+    /**
+     * Allocates a slug inside the current transaction; the reservation is
+     * released when that transaction completes.
+     */
+    public String allocate(String title) {
+        String base = normalize(title);
+        String slug = reserve(base);
+        TransactionCallbacks.afterCompletion(() -> release(base, slug));
+        return slug;
+    }
+
+    /**
+     * Allocates one slug per title inside the current transaction, for bulk
+     * inserts. A single query finds which base slugs already exist; only
+     * those (and bases reserved by an in-flight insert) need the prefix
+     * query for a free suffix. Reservations are released when the
+     * transaction completes.
+     */
+    public List<String> allocateAll(List<String> titles) {
+        List<String> bases = new ArrayList<>(titles.size());
+        for (String title : titles) {
+            bases.add(normalize(title));
+        }
+        Set<String> existing = bases.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(articleRepository.findExistingSlugs(new HashSet<>(bases)));
+
+        List<String> slugs = new ArrayList<>(bases.size());
+        for (String base : bases) {
+            String slug;
+            synchronized (lockFor(base)) {
+                slug = !existing.contains(base) && reserved.add(base) ? base : reserveLocked(base);
+            }
+            slugs.add(slug);
+            TransactionCallbacks.afterCompletion(() -> release(base, slug));
+        }
+        return slugs;
+    }
+
+    private String reserve(String base) {
+        synchronized (lockFor(base)) {
+            return reserveLocked(base);
+        }
+    }
+
+    private void release(String base, String slug) {
+        synchronized (lockFor(base)) {
+            reserved.remove(slug);
+        }
+    }
+
+    private Object lockFor(String base) {
+        return locks[Math.floorMod(base.hashCode(), LOCK_STRIPES)];
+    }
+
+    private String reserveLocked(String base) {
+        boolean baseTaken = false;
+        long maxSuffix = 0;
+        // Read-write so it runs on the primary; a lagging replica could hand out a taken slug
+        List<String> taken = transactionTemplate.execute(status -> articleRepository.findSlugsWithPrefix(base));
+        for (String existing : taken) {
+            if (existing.equals(base)) {
+                baseTaken = true;
+            } else {
+                maxSuffix = Math.max(maxSuffix, parseSuffix(existing.substring(base.length() + 1)));
+            }
+        }
+
+        long next = maxSuffix + 1;
+        String candidate = baseTaken ? base + "-" + next++ : base;
+        while (!reserved.add(candidate)) {
+            candidate = base + "-" + next++;
+        }
+        return candidate;
+    }
+
+    // Numeric suffix value, or 0 when the suffix is not a plain number
+    private static long parseSuffix(String suffix) {
+        if (suffix.isEmpty() || suffix.length() > 18 || suffix.charAt(0) == '0') {
+            return 0;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            char c = suffix.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+        }
+        return Long.parseLong(suffix);
+    }
+}
@@ -0,0 +1,252 @@
+package com.sylphcorps.serviceImpl;
+
+import com.sylphcorps.model.Article;
+import com.sylphcorps.model.Role;
+import com.sylphcorps.repository.ArticleRepository;
+import com.sylphcorps.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Article and user counts served from memory.
+ *
+ * Counters are adjusted by ArticleService and UserService after each
+ * committed write and periodically rebuilt from two GROUP BY queries, which
+ * corrects any drift (e.g. articles removed by a user delete cascade).
+ * Writes that commit while the queries run are recorded and replayed onto
+ * the rebuilt counters, so they are neither lost with the old counters nor
+ * applied twice.
+ */
+@Service
+public class StatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsService.class);
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile Counters counters = new Counters();
+
+    // Deltas applied while a reconcile is querying, null otherwise. Deltas
+    // take the read lock; starting and finishing a reconcile take the write
+    // lock, so no delta falls between recording and replaying.
+    private Queue<Consumer<Counters>> concurrentDeltas;
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Queue<Consumer<Counters>> recorded = new ConcurrentLinkedQueue<>();
+        recordConcurrentDeltas(recorded);
+        Counters fresh;
+        try {
+            fresh = count();
+        } catch (RuntimeException e) {
+            recordConcurrentDeltas(null);
+            throw e;
+        }
+
+        Counters previous;
+        reconcileLock.writeLock().lock();
+        try {
+            concurrentDeltas = null;
+            // Writes that committed while the queries ran. One that committed
+            // just before a query started but whose delta came after is
+            // counted twice until the next reconcile.
+            recorded.forEach(delta -> delta.accept(fresh));
+            previous = counters;
+            counters = fresh;
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+        if (previous.totalArticles.sum() != fresh.totalArticles.sum()
+                || previous.totalUsers.sum() != fresh.totalUsers.sum()) {
+            logger.debug("Statistics reconciled: articles {} -> {}, users {} -> {}",
+                    previous.totalArticles.sum(), fresh.totalArticles.sum(),
+                    previous.totalUsers.sum(), fresh.totalUsers.sum());
+        }
+    }
+
+    private Counters count() {
+        Counters fresh = new Counters();
+        for (Object[] row : articleRepository.countGroupedByAuthorCategoryAndPublished()) {
+            fresh.add((Long) row[0], (String) row[1], (Boolean) row[2], (Long) row[3]);
+        }
+        for (Object[] row : userRepository.countGroupedByRole()) {
+            fresh.addUsers((Role) row[0], (Long) row[1]);
+        }
+        return fresh;
+    }
+
+    private void recordConcurrentDeltas(Queue<Consumer<Counters>> recorded) {
+        reconcileLock.writeLock().lock();
+        try {
+            concurrentDeltas = recorded;
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies an article write. Pass null as before for a create and null
+     * as after for a delete.
+     */
+    public void articleChanged(ArticleState before, ArticleState after) {
+        apply(current -> {
+            if (before != null) {
+                current.add(before.authorId, before.category, before.published, -1);
+            }
+            if (after != null) {
+                current.add(after.authorId, after.category, after.published, 1);
+            }
+        });
+    }
+
+    /**
+     * Applies a user write. Pass null as before for a create and null as
+     * after for a delete.
+     */
+    public void userChanged(Role before, Role after) {
+        apply(current -> {
+            if (before != null) {
+                current.addUsers(before, -1);
+            }
+            if (after != null) {
+                current.addUsers(after, 1);
+            }
+        });
+    }
+
+    private void apply(Consumer<Counters> delta) {
+        reconcileLock.readLock().lock();
+        try {
+            delta.accept(counters);
+            if (concurrentDeltas != null) {
+                concurrentDeltas.add(delta);
+            }
+        } finally {
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    public long getTotalArticleCount() {
+        return counters.totalArticles.sum();
+    }
+
+    public long getPublishedArticleCount() {
+        return counters.publishedArticles.sum();
+    }
+
+    public long getArticleCountByAuthor(Long authorId) {
+        return sum(counters.articlesByAuthor.get(authorId));
+    }
+
+    public long getPublishedArticleCountByAuthor(Long authorId) {
+        return sum(counters.publishedByAuthor.get(authorId));
+    }
+
+    public long getPublishedArticleCountByCategory(String category) {
+        return sum(counters.publishedByCategory.get(category));
+    }
+
+    public Map<String, Long> getPublishedArticleCountsByCategory() {
+        Map<String, Long> result = new TreeMap<>();
+        counters.publishedByCategory.forEach((category, count) -> result.put(category, count.sum()));
+        return result;
+    }
+
+    public long getUserCount() {
+        return counters.totalUsers.sum();
+    }
+
+    public long getUserCountByRole(Role role) {
+        return sum(counters.usersByRole.get(role));
+    }
+
+    public Map<Role, Long> getUserCountsByRole() {
+        Map<Role, Long> result = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            result.put(role, getUserCountByRole(role));
+        }
+        return result;
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * The parts of an article that the counters depend on, captured at the
+     * time of the write.
+     */
+    public static final class ArticleState {
+        private final Long authorId;
+        private final String category;
+        private final boolean published;
+
+        private ArticleState(Long authorId, String category, boolean published) {
+            this.authorId = authorId;
+            this.category = category;
+            this.published = published;
+        }
+
+        public static ArticleState of(Article article) {
+            Long authorId = article.getAuthor() == null ? null : article.getAuthor().getId();
+            return new ArticleState(authorId, article.getCategory(), article.isPublished());
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder totalArticles = new LongAdder();
+        private final LongAdder publishedArticles = new LongAdder();
+        private final Map<Long, LongAdder> articlesByAuthor = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> publishedByAuthor = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> publishedByCategory = new ConcurrentHashMap<>();
+        private final LongAdder totalUsers = new LongAdder();
+        private final Map<Role, LongAdder> usersByRole = new ConcurrentHashMap<>();
+
+        private void add(Long authorId, String category, boolean published, long delta) {
+            totalArticles.add(delta);
+            if (authorId != null) {
+                articlesByAuthor.computeIfAbsent(authorId, id -> new LongAdder()).add(delta);
+            }
+            if (!published) {
+                return;
+            }
+            publishedArticles.add(delta);
+            if (authorId != null) {
+                publishedByAuthor.computeIfAbsent(authorId, id -> new LongAdder()).add(delta);
+            }
+            if (category != null) {
+                publishedByCategory.computeIfAbsent(category, c -> new LongAdder()).add(delta);
+            }
+        }
+
+        private void addUsers(Role role, long delta) {
+            totalUsers.add(delta);
+            if (role != null) {
+                usersByRole.computeIfAbsent(role, r -> new LongAdder()).add(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.sylphcorps.serviceImpl;
+
+import com.sylphcorps.dto.ArticleSummary;
+import com.sylphcorps.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Trending articles ranked by exponentially decayed view counts.
+ *
+ * Scores use forward decay: a view at time t adds exp(lambda * (t - landmark))
+ * to its article, so recording a view is a single map merge and older views
+ * lose weight without ever being touched. The current score is that sum
+ * scaled by exp(-lambda * (now - landmark)). The landmark is moved forward
+ * (and all scores rescaled) before the weights can overflow.
+ *
+ * The top articles are recomputed on a fixed interval and kept in memory as
+ * ready-made summaries. Scores that decay below MIN_SCORE are dropped, so the
+ * map only holds articles viewed in the last few half-lives.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final double MIN_SCORE = 0.01;
+    // Rescale well before exp() overflows a double (around 709)
+    private static final double MAX_EXPONENT = 50;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Map<Long, Double> weights = new ConcurrentHashMap<>();
+    // Views take the read lock, rescaling takes the write lock
+    private final ReadWriteLock rescaleLock = new ReentrantReadWriteLock();
+    private volatile long landmark = System.currentTimeMillis();
+    private volatile List<ArticleSummary> ranking = Collections.emptyList();
+    private volatile long rankedAt = System.currentTimeMillis();
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Value("${app.trending.half-life-ms:3600000}")
+    private long halfLifeMs;
+
+    @Value("${app.trending.size:100}")
+    private int size;
+
+    @Value("${app.trending.snapshot-file:}")
+    private String snapshotFile;
+
+    public void recordView(Long articleId) {
+        rescaleLock.readLock().lock();
+        try {
+            weights.merge(articleId, Math.exp(lambda() * (System.currentTimeMillis() - landmark)), Double::sum);
+        } finally {
+            rescaleLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets an article that was deleted or unpublished.
+     */
+    public void remove(Long articleId) {
+        weights.remove(articleId);
+        List<ArticleSummary> current = ranking;
+        if (current.stream().anyMatch(article -> article.getId().equals(articleId))) {
+            ranking = current.stream()
+                    .filter(article -> !article.getId().equals(articleId))
+                    .collect(Collectors.toUnmodifiableList());
+            rankedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * The current top articles, highest score first. Empty until some
+     * published article has been viewed.
+     */
+    public List<ArticleSummary> getRanking() {
+        return ranking;
+    }
+
+    /**
+     * When the order of the ranking last changed.
+     */
+    public long getRankedAt() {
+        return rankedAt;
+    }
+
+    public double getScore(Long articleId) {
+        Double weight = weights.get(articleId);
+        return weight == null ? 0 : weight * decayFactor(System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.trending.refresh-interval-ms:10000}",
+            fixedDelayString = "${app.trending.refresh-interval-ms:10000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        if (lambda() * (now - landmark) > MAX_EXPONENT) {
+            rescale(now);
+        }
+
+        double decay = decayFactor(now);
+        double minWeight = MIN_SCORE / decay;
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Long id : weights.keySet()) {
+            // Drops the entry atomically, so a view merged concurrently is not lost
+            Double weight = weights.computeIfPresent(id, (key, w) -> w < minWeight ? null : w);
+            if (weight == null) {
+                continue;
+            }
+            top.offer(Map.entry(id, weight));
+            if (top.size() > size) {
+                top.poll();
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add(top.poll().getKey());
+        }
+        Collections.reverse(ids);
+        List<ArticleSummary> fresh = loadPublished(ids);
+        if (!sameOrder(ranking, fresh)) {
+            rankedAt = now;
+        }
+        ranking = fresh;
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        Path path = snapshotPath();
+        if (path == null || !Files.isRegularFile(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                logger.warn("Ignoring trending snapshot {} with unknown version", path);
+                return;
+            }
+            long savedAt = in.readLong();
+            int count = in.readInt();
+            long now = System.currentTimeMillis();
+            double decay = Math.exp(-lambda() * Math.max(0, now - savedAt));
+            landmark = now;
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                double score = in.readDouble() * decay;
+                if (score >= MIN_SCORE) {
+                    weights.put(id, score);
+                }
+            }
+            logger.info("Loaded {} trending scores from {}", weights.size(), path);
+        } catch (IOException e) {
+            logger.warn("Could not read trending snapshot {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshot() {
+        Path path = snapshotPath();
+        if (path == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        double decay = decayFactor(now);
+        Map<Long, Double> scores = new HashMap<>(weights);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Write to a sibling and move it into place so a crash never leaves a torn file
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(now);
+                out.writeInt(scores.size());
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    out.writeDouble(entry.getValue() * decay);
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved {} trending scores to {}", scores.size(), path);
+        } catch (IOException e) {
+            logger.warn("Could not write trending snapshot {}", path, e);
+        }
+    }
+
+    private void rescale(long now) {
+        rescaleLock.writeLock().lock();
+        try {
+            double factor = decayFactor(now);
+            weights.replaceAll((id, weight) -> weight * factor);
+            landmark = now;
+        } finally {
+            rescaleLock.writeLock().unlock();
+        }
+    }
+
+    private List<ArticleSummary> loadPublished(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ArticleSummary> byId = articleRepository.findSummariesByIdIn(ids).stream()
+                .filter(ArticleSummary::isPublished)
+                .collect(Collectors.toMap(ArticleSummary::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(article -> article != null)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static boolean sameOrder(List<ArticleSummary> a, List<ArticleSummary> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).getId().equals(b.get(i).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double decayFactor(long now) {
+        return Math.exp(-lambda() * (now - landmark));
+    }
+
+    // Decay rate per millisecond
+    private double lambda() {
+        return Math.log(2) / halfLifeMs;
+    }
+
+    private Path snapshotPath() {
+        return snapshotFile == null || snapshotFile.isBlank() ? null : Paths.get(snapshotFile);
+    }
+}
@@ -0,0 +1,165 @@
+package com.sylphcorps.serviceImpl;
+
+import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.model.Role;
+import com.sylphcorps.repository.UserRepository;
+import com.sylphcorps.utils.TransactionCallbacks;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Creates users in bulk for admin provisioning.
+ *
+ * Passwords are hashed in parallel on a pool of their own, so a large batch
+ * neither queues behind nor starves interactive sign-ins, and before the
+ * insert transaction opens. Rows are then written as JDBC batches with
+ * ON CONFLICT DO NOTHING: a taken username or email skips that row instead
+ * of failing the batch.
+ *
+ * Batch update counts cannot tell a skipped row from an inserted one once
+ * the driver rewrites the batch (pgjdbc reWriteBatchedInserts answers
+ * SUCCESS_NO_INFO for every row), so each chunk's usernames are read back
+ * in the same transaction: a row was inserted by this call only if it holds
+ * the hash computed for it, since every BCrypt hash has its own salt.
+ */
+@Service
+public class UserProvisioningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProvisioningService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (username, email, password, full_name, bio, role, is_active, token_version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, TRUE, 0, ?, ?) ON CONFLICT DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.users.bulk.batch-size:500}")
+    private int batchSize;
+
+    // 0 means one thread per available processor
+    @Value("${app.users.bulk.hashing-parallelism:0}")
+    private int hashingParallelism;
+
+    private ForkJoinPool hashingPool;
+
+    @PostConstruct
+    public void init() {
+        hashingPool = new ForkJoinPool(hashingParallelism > 0
+                ? hashingParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    /**
+     * Inserts every user whose username and email are free, in one
+     * transaction.
+     *
+     * @return the usernames that were skipped because they or their email
+     * already exist (including duplicates within the request)
+     */
+    public List<String> createUsers(List<SignupRequest> requests) {
+        List<String> hashes = hashAll(requests);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<String> skipped = new ArrayList<>();
+        List<Role> created = new ArrayList<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < requests.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, requests.size());
+                List<Object[]> batch = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    SignupRequest request = requests.get(i);
+                    batch.add(new Object[]{
+                            request.getUsername(), request.getEmail(), hashes.get(i),
+                            request.getFullName(), request.getBio(), roleOf(request).name(), now, now});
+                }
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                Map<String, String> stored = storedHashes(requests.subList(from, to));
+                for (int i = from; i < to; i++) {
+                    SignupRequest request = requests.get(i);
+                    if (hashes.get(i).equals(stored.get(request.getUsername()))) {
+                        created.add(roleOf(request));
+                    } else {
+                        skipped.add(request.getUsername());
+                    }
+                }
+            }
+            TransactionCallbacks.afterCommit(() -> {
+                created.forEach(role -> statisticsService.userChanged(null, role));
+                // The inserts bypass Hibernate, so cached "no such user" lookups must go
+                entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                        .evictQueryRegion(UserRepository.USERS_BY_USERNAME_REGION);
+            });
+        });
+
+        logger.info("Provisioned {} users, skipped {}", created.size(), skipped.size());
+        return skipped;
+    }
+
+    // Password hash per username, for the usernames of this chunk that exist now
+    private Map<String, String> storedHashes(List<SignupRequest> chunk) {
+        List<String> usernames = chunk.stream().map(SignupRequest::getUsername).distinct().collect(Collectors.toList());
+        String placeholders = String.join(", ", Collections.nCopies(usernames.size(), "?"));
+        Map<String, String> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT username, password FROM users WHERE username IN (" + placeholders + ")",
+                rs -> {
+                    stored.put(rs.getString(1), rs.getString(2));
+                }, usernames.toArray());
+        return stored;
+    }
+
+    private List<String> hashAll(List<SignupRequest> requests) {
+        try {
+            return hashingPool.submit(() -> requests.parallelStream()
+                    .map(request -> passwordEncoder.encode(request.getPassword()))
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not hash passwords", e.getCause());
+        }
+    }
+
+    private static Role roleOf(SignupRequest request) {
+        return request.getRole() != null ? request.getRole() : Role.USER;
+    }
+}
@@ -1,19 +1,29 @@
 package com.sylphcorps.serviceImpl;
 
+import com.sylphcorps.config.ReplicaRoutingDataSource;
 import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.exception.GlobalExceptionHandler.BadRequestException;
 import com.sylphcorps.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.sylphcorps.model.Role;
 import com.sylphcorps.model.User;
 import com.sylphcorps.repository.UserRepository;
+import com.sylphcorps.security.TokenVersionCache;
+import com.sylphcorps.serviceImpl.StatisticsService.ArticleState;
+import com.sylphcorps.utils.TransactionCallbacks;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -25,18 +35,22 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public User createUser(SignupRequest signupRequest) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(signupRequest.getUsername())) {
-            throw new RuntimeException("Username is already taken!");
-        }
-
-        // Check if email already exists
-        if (userRepository.existsByEmail(signupRequest.getEmail())) {
-            throw new RuntimeException("Email is already in use!");
-        }
+    @Autowired
+    private StatisticsService statisticsService;
 
-        // Create new user
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    /**
+     * Inserts the user straight away; the unique constraints on username and
+     * email decide duplicates, so there is no check-then-insert race and a
+     * signup costs a single statement. The password is hashed before the
+     * insert opens its transaction, so no connection is held during BCrypt.
+     *
+     * @throws BadRequestException when the username or email is taken
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public User createUser(SignupRequest signupRequest) {
         User user = new User(
                 signupRequest.getUsername(),
                 signupRequest.getEmail(),
@@ -46,38 +60,55 @@ public class UserService {
         );
 
         user.setBio(signupRequest.getBio());
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException(duplicateMessage(e));
+        }
+        Role role = saved.getRole();
+        TransactionCallbacks.afterCommit(() -> statisticsService.userChanged(null, role));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        // Fills the users-by-username query cache and the users region
+        return ReplicaRoutingDataSource.readFromPrimary(() -> userRepository.findByUsername(username));
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public User findById(Long id) {
-        return userRepository.findById(id)
+        return ReplicaRoutingDataSource.readFromPrimary(() -> userRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Page<User> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<User> getActiveUsers(Pageable pageable) {
         return userRepository.findByIsActiveTrue(pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<User> getUsersByRole(Role role, Pageable pageable) {
         return userRepository.findByRoleAndIsActiveTrue(role, pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<User> searchUsers(String searchTerm, Pageable pageable) {
         return userRepository.findBySearchTerm(searchTerm, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getUsersByRole(Role role) {
         return userRepository.findByRole(role);
     }
@@ -94,13 +125,18 @@ public class UserService {
 
     public User updateUserRole(Long id, Role role) {
         User user = findById(id);
+        Role previousRole = user.getRole();
         user.setRole(role);
-        return userRepository.save(user);
+        revokeTokens(user);
+        User saved = userRepository.save(user);
+        TransactionCallbacks.afterCommit(() -> statisticsService.userChanged(previousRole, role));
+        return saved;
     }
 
     public void deactivateUser(Long id) {
         User user = findById(id);
         user.setActive(false);
+        revokeTokens(user);
         userRepository.save(user);
     }
 
@@ -108,22 +144,70 @@ public class UserService {
         User user = findById(id);
         user.setActive(true);
         userRepository.save(user);
+        // Drop the cached revocation so tokens issued from now on are accepted
+        tokenVersionCache.invalidate(id);
     }
 
     public void deleteUser(Long id) {
         User user = findById(id);
+        Role role = user.getRole();
+        // The delete cascades to the user's articles, which the cascade loads
+        // anyway; take each out of the counts rather than recounting them all
+        List<ArticleState> articles = user.getArticles().stream()
+                .map(ArticleState::of)
+                .collect(Collectors.toList());
         userRepository.delete(user);
+        tokenVersionCache.invalidate(id);
+        TransactionCallbacks.afterCommit(() -> {
+            statisticsService.userChanged(role, null);
+            articles.forEach(article -> statisticsService.articleChanged(article, null));
+        });
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
 
+    // Kept in memory by StatisticsService, so no transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public long getUserCount() {
-        return userRepository.count();
+        return statisticsService.getUserCount();
+    }
+
+    // Tokens carry the role and version they were issued with, so any change
+    // to either must invalidate them
+    private void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        tokenVersionCache.invalidate(user.getId());
+    }
+
+    static String duplicateMessage(DataIntegrityViolationException e) {
+        String violated = violatedConstraint(e);
+        if (violated.contains(User.UK_USERNAME)) {
+            return "Error: Username is already taken!";
+        }
+        if (violated.contains(User.UK_EMAIL)) {
+            return "Error: Email is already in use!";
+        }
+        return "Error: Username or email is already in use!";
+    }
+
+    private static String violatedConstraint(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String name = ((ConstraintViolationException) cause).getConstraintName();
+                if (name != null) {
+                    return name.toLowerCase(Locale.ROOT);
+                }
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message == null ? "" : message.toLowerCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
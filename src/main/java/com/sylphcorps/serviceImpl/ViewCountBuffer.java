@@ -0,0 +1,169 @@
+package com.sylphcorps.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for article view counts.
+ *
+ * Views are accumulated in memory per article id and written to the database
+ * periodically as one batched relative update, so recording a view never
+ * touches the database on the request thread.
+ *
+ * The update bypasses Hibernate, so cached copies of an article (the slug
+ * cache, the articles region, cached listings) keep the count they were
+ * loaded with. Rather than evicting them on every flush, the counts written
+ * are read back and overlaid on those copies with currentViewCount.
+ */
+@Component
+public class ViewCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+    private static final String FLUSH_SQL = "UPDATE articles SET view_count = view_count + ? WHERE id = ?";
+    private static final int READ_BACK_CHUNK = 500;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Counts read back after a flush. Kept as long as the longest-lived
+    // cached copy (the articles region in application.conf), since a copy
+    // loaded before the flush cannot outlive the count that corrects it.
+    private final Cache<Long, Long> flushedCounts = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void increment(Long articleId) {
+        add(articleId, 1);
+    }
+
+    // Counted under the entry's lock so flush cannot prune the adder between
+    // looking it up and adding to it
+    private void add(Long articleId, long views) {
+        pending.compute(articleId, (id, adder) -> {
+            LongAdder counter = adder == null ? new LongAdder() : adder;
+            counter.add(views);
+            return counter;
+        });
+    }
+
+    /**
+     * Views recorded for the article that have not been written yet.
+     */
+    public long getPending(Long articleId) {
+        LongAdder adder = pending.get(articleId);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * The article's view count as of the last flush, given the count a
+     * possibly cached copy was loaded with. Counts only grow, so the higher
+     * of the two is the more recent.
+     */
+    public long currentViewCount(Long articleId, Long loaded) {
+        long count = loaded == null ? 0L : loaded;
+        Long flushed = flushedCounts.getIfPresent(articleId);
+        return flushed == null ? count : Math.max(count, flushed);
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public void flush() {
+        write(true);
+    }
+
+    private void write(boolean readBack) {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            LongAdder adder = entry.getValue();
+            long delta = adder.sum();
+            if (delta == 0) {
+                continue;
+            }
+            // Subtract what we are about to write instead of resetting, so
+            // increments racing with the flush are kept for the next round.
+            adder.add(-delta);
+            batch.add(new Object[]{delta, entry.getKey()});
+        }
+        prune();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush view counts, re-queueing {} deltas", batch.size(), e);
+            for (Object[] row : batch) {
+                add((Long) row[1], (Long) row[0]);
+            }
+            return;
+        }
+        if (readBack) {
+            readBack(batch);
+        }
+        logger.debug("Flushed view counts for {} articles", batch.size());
+    }
+
+    private void readBack(List<Object[]> batch) {
+        List<Object> ids = new ArrayList<>(batch.size());
+        for (Object[] row : batch) {
+            ids.add(row[1]);
+        }
+        try {
+            for (int from = 0; from < ids.size(); from += READ_BACK_CHUNK) {
+                List<Object> chunk = ids.subList(from, Math.min(from + READ_BACK_CHUNK, ids.size()));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                jdbcTemplate.query("SELECT id, view_count FROM articles WHERE id IN (" + placeholders + ")",
+                        rs -> {
+                            flushedCounts.asMap().merge(rs.getLong(1), rs.getLong(2), Math::max);
+                        }, chunk.toArray());
+            }
+        } catch (RuntimeException e) {
+            // The counts are written; cached copies just show older ones
+            logger.warn("Could not read back flushed view counts", e);
+        }
+    }
+
+    // Drops articles with nothing left to write, so ids viewed once do not
+    // stay in the map for the life of the process
+    private void prune() {
+        for (Long articleId : pending.keySet()) {
+            pending.computeIfPresent(articleId, (id, adder) -> adder.sum() == 0 ? null : adder);
+        }
+    }
+
+    /**
+     * Drain-on-shutdown hook: writes everything still buffered. Nothing is
+     * served after this, so the counts are not read back.
+     */
+    @PreDestroy
+    public void drain() {
+        write(false);
+    }
+
+    /**
+     * Drops buffered views for an article that no longer exists.
+     */
+    public void discard(Long articleId) {
+        pending.remove(articleId);
+        flushedCounts.invalidate(articleId);
+    }
+}
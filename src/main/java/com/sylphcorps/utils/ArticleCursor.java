@@ -0,0 +1,131 @@
+package com.sylphcorps.utils;
+
+import com.sylphcorps.exception.GlobalExceptionHandler.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in an article listing: the sort value of the last
+ * row returned plus its id as a tie-breaker. Encoded as URL-safe base64 so
+ * clients treat it as a token rather than something to construct.
+ */
+public final class ArticleCursor {
+
+    private static final String PUBLISHED_AT = "p";
+    private static final String VIEW_COUNT = "v";
+    private static final String RANK = "r";
+
+    // Sorts after every real row, so the first page is just a seek from here
+    private static final LocalDateTime MAX_PUBLISHED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final LocalDateTime publishedAt;
+    private final Long viewCount;
+    private final int rank;
+    private final Long id;
+
+    private ArticleCursor(LocalDateTime publishedAt, Long viewCount, Long id) {
+        this(publishedAt, viewCount, 0, id);
+    }
+
+    private ArticleCursor(LocalDateTime publishedAt, Long viewCount, int rank, Long id) {
+        this.publishedAt = publishedAt;
+        this.viewCount = viewCount;
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+
+    public Long getViewCount() { return viewCount; }
+
+    public int getRank() { return rank; }
+
+    public Long getId() { return id; }
+
+    public static String encodePublishedAt(LocalDateTime publishedAt, Long id) {
+        return encode(PUBLISHED_AT, publishedAt.toString(), id);
+    }
+
+    public static String encodeViewCount(Long viewCount, Long id) {
+        return encode(VIEW_COUNT, String.valueOf(viewCount), id);
+    }
+
+    // Position in the in-memory trending ranking rather than a sort value
+    public static String encodeRank(int rank, Long id) {
+        return encode(RANK, String.valueOf(rank), id);
+    }
+
+    public static boolean isRank(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).startsWith(RANK + "|");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static ArticleCursor decodePublishedAt(String token) {
+        if (token == null || token.isEmpty()) {
+            return new ArticleCursor(MAX_PUBLISHED_AT, null, Long.MAX_VALUE);
+        }
+        String[] parts = decode(token, PUBLISHED_AT);
+        try {
+            return new ArticleCursor(LocalDateTime.parse(parts[1]), null, Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    public static ArticleCursor decodeViewCount(String token) {
+        if (token == null || token.isEmpty()) {
+            return new ArticleCursor(null, Long.MAX_VALUE, Long.MAX_VALUE);
+        }
+        String[] parts = decode(token, VIEW_COUNT);
+        try {
+            return new ArticleCursor(null, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    public static ArticleCursor decodeRank(String token) {
+        if (token == null || token.isEmpty()) {
+            return new ArticleCursor(null, null, 0, null);
+        }
+        String[] parts = decode(token, RANK);
+        try {
+            int rank = Integer.parseInt(parts[1]);
+            if (rank < 0) {
+                throw invalid();
+            }
+            return new ArticleCursor(null, null, rank, Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    private static String encode(String kind, String value, Long id) {
+        String raw = kind + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String token, String expectedKind) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        String[] parts = raw.split("\\|");
+        if (parts.length != 3 || !parts[0].equals(expectedKind)) {
+            throw invalid();
+        }
+        return parts;
+    }
+
+    private static BadRequestException invalid() {
+        return new BadRequestException("Invalid cursor");
+    }
+}
@@ -0,0 +1,63 @@
+package com.sylphcorps.utils;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.function.Supplier;
+
+/**
+ * The "endpoint" metric tag: the HTTP method and mapped path pattern of the
+ * request being served, e.g. "GET /api/articles/public/{slug}".
+ *
+ * Work handed to another thread keeps the endpoint of the request that
+ * submitted it when wrapped with propagate. Work outside any request is
+ * tagged "none".
+ */
+public final class EndpointTags {
+
+    public static final String NONE = "none";
+    public static final String UNMAPPED = "unmapped";
+
+    private static final ThreadLocal<String> propagated = new ThreadLocal<>();
+
+    private EndpointTags() {
+    }
+
+    public static String current() {
+        String endpoint = propagated.get();
+        if (endpoint != null) {
+            return endpoint;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return of(((ServletRequestAttributes) attributes).getRequest());
+        }
+        return NONE;
+    }
+
+    // Only known once the handler is mapped; filters should read it after the chain
+    public static String of(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNMAPPED : request.getMethod() + " " + pattern;
+    }
+
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        String endpoint = current();
+        return () -> {
+            String previous = propagated.get();
+            propagated.set(endpoint);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    propagated.remove();
+                } else {
+                    propagated.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.sylphcorps.utils;
+
+import com.sylphcorps.dto.ArticleSummary;
+import com.sylphcorps.dto.ArticleVersion;
+import com.sylphcorps.dto.CursorPage;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Strong ETags and Last-Modified values for article responses.
+ *
+ * ETags hash every field that can change a response body other than the
+ * content itself, which only changes together with updatedAt. Responses
+ * carrying them are answered with 304 by Spring when If-None-Match or
+ * If-Modified-Since match, and are marked no-cache so clients revalidate
+ * instead of serving a stale copy.
+ */
+public final class HttpValidators {
+
+    private HttpValidators() {
+    }
+
+    public static String etag(ArticleVersion version) {
+        return hash(version.getId() + ":" + toMillis(version.getUpdatedAt()) + ":" + version.getViewCount());
+    }
+
+    public static String etag(Page<ArticleSummary> page) {
+        StringBuilder state = new StringBuilder()
+                .append(page.getNumber()).append(':')
+                .append(page.getSize()).append(':')
+                .append(page.getTotalElements()).append(':')
+                .append(page.getSort());
+        return hash(appendRows(state, page.getContent()));
+    }
+
+    public static String etag(CursorPage<ArticleSummary> page) {
+        StringBuilder state = new StringBuilder()
+                .append(page.getSize()).append(':')
+                .append(page.getNextCursor());
+        return hash(appendRows(state, page.getContent()));
+    }
+
+    public static String etagOfValues(Collection<?> values) {
+        StringBuilder state = new StringBuilder();
+        for (Object value : values) {
+            state.append('|').append(value);
+        }
+        return hash(state);
+    }
+
+    /**
+     * Last-Modified for a listing: the newest row, but never earlier than
+     * the last time any listing could have changed (a delete, or a view
+     * count flush) so If-Modified-Since alone cannot miss those.
+     */
+    public static long lastModified(List<ArticleSummary> rows, long listingsModifiedAt) {
+        long latest = listingsModifiedAt;
+        for (ArticleSummary row : rows) {
+            latest = Math.max(latest, toMillis(row.getUpdatedAt()));
+        }
+        return latest;
+    }
+
+    public static long lastModified(ArticleVersion version) {
+        return toMillis(version.getUpdatedAt());
+    }
+
+    public static <T> ResponseEntity<T> ok(T body, String etag, long lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag);
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder.body(body);
+    }
+
+    private static StringBuilder appendRows(StringBuilder state, List<ArticleSummary> rows) {
+        for (ArticleSummary row : rows) {
+            state.append('|').append(row.getId())
+                    .append(':').append(toMillis(row.getUpdatedAt()))
+                    .append(':').append(row.getViewCount())
+                    .append(':').append(row.isPublished())
+                    .append(row.isFeatured())
+                    .append(row.isTrending());
+        }
+        return state;
+    }
+
+    private static String hash(CharSequence state) {
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,41 @@
+-- H2 counterpart of postgresql/V1, for the test suite and local runs
+
+create table users (
+    id bigint generated by default as identity,
+    bio varchar(500),
+    created_at timestamp not null,
+    email varchar(100),
+    full_name varchar(100),
+    is_active boolean,
+    password varchar(120),
+    role varchar(20),
+    updated_at timestamp,
+    username varchar(50),
+    primary key (id)
+);
+
+create sequence articles_id_seq start with 1 increment by 1;
+
+create table articles (
+    id bigint default nextval('articles_id_seq') not null,
+    category varchar(100),
+    content text,
+    created_at timestamp not null,
+    excerpt varchar(500),
+    image_url varchar(500),
+    is_featured boolean,
+    is_published boolean,
+    is_trending boolean,
+    published_at timestamp,
+    slug varchar(255),
+    title varchar(200),
+    updated_at timestamp,
+    view_count bigint,
+    author_id bigint,
+    primary key (id)
+);
+
+alter table articles add constraint UK_sn7al9fwhgtf98rvn8nxhjt4f unique (slug);
+alter table users add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username);
+alter table users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table articles add constraint FKe02fs2ut6qqoabfhj325wcjul foreign key (author_id) references users;
@@ -0,0 +1,15 @@
+-- H2 counterpart of postgresql/V2. H2 databases are never baselined, so the
+-- constraints are replaced directly. They are dropped and added again rather
+-- than renamed: H2 reports a violation by the backing index, and a renamed
+-- constraint keeps the index named after its old name.
+
+alter table users add column if not exists token_version integer default 0 not null;
+
+alter sequence articles_id_seq increment by 50;
+
+alter table users drop constraint UK_r43af9ap4edm43mmtq01oddj6;
+alter table users add constraint uk_users_username unique (username);
+alter table users drop constraint UK_6dotkott2kjsp8vw4d0m25fb7;
+alter table users add constraint uk_users_email unique (email);
+alter table articles drop constraint UK_sn7al9fwhgtf98rvn8nxhjt4f;
+alter table articles add constraint uk_articles_slug unique (slug);
@@ -0,0 +1,7 @@
+-- H2 counterpart of postgresql/V3. H2 has no partial or full-text expression
+-- indexes; the featured and trending feeds read idx_articles_published_at.
+
+create index if not exists idx_articles_published_at on articles (is_published, published_at, id);
+create index if not exists idx_articles_view_count on articles (is_published, view_count, id);
+create index if not exists idx_articles_category on articles (is_published, category, published_at, id);
+create index if not exists idx_articles_author on articles (author_id, created_at, id);
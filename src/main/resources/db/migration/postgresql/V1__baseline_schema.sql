@@ -0,0 +1,41 @@
+-- The schema as Hibernate generated it (ddl-auto=update) before migrations
+-- were introduced. Databases created that way are baselined at version 1 and
+-- start from V2; this file only runs on an empty database.
+
+create table users (
+    id bigserial not null,
+    bio varchar(500),
+    created_at timestamp not null,
+    email varchar(100),
+    full_name varchar(100),
+    is_active boolean,
+    password varchar(120),
+    role varchar(20),
+    updated_at timestamp,
+    username varchar(50),
+    primary key (id)
+);
+
+create table articles (
+    id bigserial not null,
+    category varchar(100),
+    content text,
+    created_at timestamp not null,
+    excerpt varchar(500),
+    image_url varchar(500),
+    is_featured boolean,
+    is_published boolean,
+    is_trending boolean,
+    published_at timestamp,
+    slug varchar(255),
+    title varchar(200),
+    updated_at timestamp,
+    view_count int8,
+    author_id int8,
+    primary key (id)
+);
+
+alter table articles add constraint UK_sn7al9fwhgtf98rvn8nxhjt4f unique (slug);
+alter table users add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username);
+alter table users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table articles add constraint FKe02fs2ut6qqoabfhj325wcjul foreign key (author_id) references users;
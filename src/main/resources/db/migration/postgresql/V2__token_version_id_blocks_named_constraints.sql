@@ -0,0 +1,53 @@
+-- Columns and settings the entities gained while the schema was still
+-- managed by ddl-auto=update. Every step is idempotent so a baselined
+-- database that already has some of them migrates cleanly.
+
+-- JWT revocation counter (User.tokenVersion)
+alter table users add column if not exists token_version integer default 0 not null;
+
+-- Article ids are allocated by Hibernate in blocks of 50 (pooled-lo); the
+-- sequence must advance by the same amount
+alter sequence articles_id_seq increment by 50;
+
+-- Unique constraints carry stable names so violations can be mapped back to
+-- the field (see User.UK_USERNAME). Generated names are renamed; duplicates
+-- left behind by ddl-auto=update adding the named ones are dropped.
+do $$
+declare
+    target record;
+    existing name;
+begin
+    for target in
+        select * from (values
+            ('users', 'username', 'uk_users_username'),
+            ('users', 'email', 'uk_users_email'),
+            ('articles', 'slug', 'uk_articles_slug')
+        ) as t (table_name, column_name, constraint_name)
+    loop
+        for existing in
+            select c.conname
+            from pg_constraint c
+            join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1]
+            where c.contype = 'u'
+              and c.conrelid = target.table_name::regclass
+              and cardinality(c.conkey) = 1
+              and a.attname = target.column_name
+              and c.conname <> target.constraint_name
+        loop
+            if exists (select 1 from pg_constraint
+                       where conrelid = target.table_name::regclass and conname = target.constraint_name) then
+                execute format('alter table %I drop constraint %I', target.table_name, existing);
+            else
+                execute format('alter table %I rename constraint %I to %I',
+                        target.table_name, existing, target.constraint_name);
+            end if;
+        end loop;
+
+        if not exists (select 1 from pg_constraint
+                       where conrelid = target.table_name::regclass and conname = target.constraint_name) then
+            execute format('alter table %I add constraint %I unique (%I)',
+                    target.table_name, target.constraint_name, target.column_name);
+        end if;
+    end loop;
+end
+$$;
@@ -0,0 +1,28 @@
+-- Indexes for the article listings and full-text search. Built concurrently
+-- so a large articles table stays writable; Flyway runs these statements
+-- outside a transaction. If a build is interrupted, the invalid index it
+-- leaves must be dropped before re-running, since IF NOT EXISTS skips it.
+
+-- Listing filter first, then the sort key and id, so a page is a range read
+-- in index order (see Article)
+create index concurrently if not exists idx_articles_published_at on articles (is_published, published_at, id);
+create index concurrently if not exists idx_articles_view_count on articles (is_published, view_count, id);
+create index concurrently if not exists idx_articles_category on articles (is_published, category, published_at, id);
+create index concurrently if not exists idx_articles_author on articles (author_id, created_at, id);
+
+-- Few articles are featured or trending, so these feeds index only those rows
+create index concurrently if not exists idx_articles_featured_feed on articles (published_at, id)
+    where is_published and is_featured;
+create index concurrently if not exists idx_articles_trending_feed on articles (published_at, id)
+    where is_published and is_trending;
+
+-- The LIKE 'base-%' of ArticleRepository.findSlugsWithPrefix. The unique
+-- slug index uses the database collation, which LIKE cannot range-scan
+-- unless it is C
+create index concurrently if not exists idx_articles_slug_prefix on articles (slug varchar_pattern_ops);
+
+-- Must match ArticleRepository.SEARCH_VECTOR exactly
+create index concurrently if not exists idx_articles_search on articles using gin (
+    (setweight(to_tsvector('english', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(excerpt, '')), 'B')
+        || setweight(to_tsvector('english', coalesce(content, '')), 'C')));
@@ -0,0 +1,112 @@
+package com.sylphcorps.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing against two separate in-memory databases, each of which knows its
+ * own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+	private static final String WHICH = "SELECT name FROM which_db";
+
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate readWrite;
+	private TransactionTemplate readOnly;
+
+	@BeforeEach
+	void setUp() {
+		route(database("primary"), database("replica"));
+	}
+
+	@AfterEach
+	void clearPrincipal() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		assertEquals("replica", readOnly.execute(status -> which()));
+		assertEquals("primary", readWrite.execute(status -> which()));
+		assertEquals("primary", which());
+	}
+
+	@Test
+	void callerReadsTheirOwnWritesFromThePrimary() {
+		signIn("alice");
+		readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE which_db SET name = name"));
+		assertEquals("primary", readOnly.execute(status -> which()));
+
+		signIn("bob");
+		assertEquals("replica", readOnly.execute(status -> which()));
+	}
+
+	@Test
+	void cacheFillsReadPastALaggingReplica() {
+		// The replica never sees the primary's writes here: replication lag
+		// longer than the read-your-writes window
+		readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE which_db SET name = 'primary, updated'"));
+
+		signIn("reader");
+		assertEquals("replica", readOnly.execute(status -> which()));
+		assertEquals("primary, updated", readOnly.execute(status -> ReplicaRoutingDataSource.readFromPrimary(this::which)));
+
+		// Reading from the primary is not a write; the reader keeps the replica
+		assertEquals("replica", readOnly.execute(status -> which()));
+	}
+
+	@Test
+	void unavailableReplicaFallsBackToThePrimary() {
+		JdbcDataSource missing = new JdbcDataSource();
+		missing.setURL("jdbc:h2:mem:missing_replica;IFEXISTS=TRUE");
+		route(database("primary"), missing);
+
+		assertEquals("primary", readOnly.execute(status -> which()));
+		assertEquals("primary", readOnly.execute(status -> which()));
+	}
+
+	private void route(DataSource primary, DataSource replica) {
+		DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+				primary, replica, Duration.ofSeconds(5), Duration.ofSeconds(30)));
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	private String which() {
+		List<String> names = jdbcTemplate.queryForList(WHICH, String.class);
+		return names.get(0);
+	}
+
+	private static void signIn(String username) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(username, null, List.of()));
+	}
+
+	private static DataSource database(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE IF NOT EXISTS which_db (name VARCHAR(20))");
+		jdbc.execute("DELETE FROM which_db");
+		jdbc.update("INSERT INTO which_db (name) VALUES (?)", name);
+		return dataSource;
+	}
+}
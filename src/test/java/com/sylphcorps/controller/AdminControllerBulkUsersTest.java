@@ -0,0 +1,89 @@
+package com.sylphcorps.controller;
+
+import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.model.Role;
+import com.sylphcorps.model.User;
+import com.sylphcorps.security.JwtUtils;
+import com.sylphcorps.security.UserDetailsImpl;
+import com.sylphcorps.serviceImpl.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminControllerBulkUsersTest {
+
+	private static final String ADMIN = "bulk_admin";
+	private static final String EXISTING = "bulk_existing";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	private String bearer;
+
+	@BeforeEach
+	void seed() {
+		User admin = userService.findByUsername(ADMIN).orElseGet(() -> userService.createUser(signup(ADMIN, Role.ADMIN)));
+		if (userService.findByUsername(EXISTING).isEmpty()) {
+			userService.createUser(signup(EXISTING, Role.USER));
+		}
+		UserDetailsImpl principal = UserDetailsImpl.build(admin);
+		bearer = "Bearer " + jwtUtils.generateJwtToken(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+	}
+
+	@Test
+	void takenUsernamesAndEmailsAreReportedAsSkipped() throws Exception {
+		mockMvc.perform(post("/api/admin/users/bulk")
+						.header(HttpHeaders.AUTHORIZATION, bearer)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"users\":["
+								+ user("bulk_fresh", "bulk_fresh@example.com") + ","
+								+ user(EXISTING, "bulk_other@example.com") + ","
+								+ user("bulk_same_email", EXISTING + "@example.com") + ","
+								+ user("bulk_fresh", "bulk_fresh_again@example.com")
+								+ "]}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.requested").value(4))
+				.andExpect(jsonPath("$.created").value(1))
+				.andExpect(jsonPath("$.skipped", containsInAnyOrder(EXISTING, "bulk_same_email", "bulk_fresh")));
+
+		assertTrue(userService.findByUsername("bulk_fresh").isPresent());
+	}
+
+	private static SignupRequest signup(String username, Role role) {
+		SignupRequest request = new SignupRequest();
+		request.setUsername(username);
+		request.setEmail(username + "@example.com");
+		request.setPassword("secret123");
+		request.setFullName("Bulk Test");
+		request.setRole(role);
+		return request;
+	}
+
+	private static String user(String username, String email) {
+		return "{\"username\":\"" + username + "\",\"email\":\"" + email
+				+ "\",\"password\":\"secret123\",\"fullName\":\"Bulk User\"}";
+	}
+}
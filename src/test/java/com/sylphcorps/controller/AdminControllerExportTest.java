@@ -0,0 +1,71 @@
+package com.sylphcorps.controller;
+
+import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.model.Role;
+import com.sylphcorps.model.User;
+import com.sylphcorps.security.JwtUtils;
+import com.sylphcorps.security.UserDetailsImpl;
+import com.sylphcorps.serviceImpl.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.export.async-timeout-ms=7200000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminControllerExportTest {
+
+	private static final String ADMIN = "export_admin";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	private String bearer;
+
+	@BeforeEach
+	void seed() {
+		User admin = userService.findByUsername(ADMIN).orElseGet(() -> {
+			SignupRequest request = new SignupRequest();
+			request.setUsername(ADMIN);
+			request.setEmail(ADMIN + "@example.com");
+			request.setPassword("secret123");
+			request.setFullName("Export Admin");
+			request.setRole(Role.ADMIN);
+			return userService.createUser(request);
+		});
+		UserDetailsImpl principal = UserDetailsImpl.build(admin);
+		bearer = "Bearer " + jwtUtils.generateJwtToken(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+	}
+
+	@Test
+	void exportsSetTheirOwnAsyncTimeout() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/admin/export/users").header(HttpHeaders.AUTHORIZATION, bearer))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString(ADMIN)));
+		assertEquals(7_200_000L, started.getRequest().getAsyncContext().getTimeout());
+	}
+}
@@ -0,0 +1,255 @@
+package com.sylphcorps.controller;
+
+import com.sylphcorps.config.CacheConfig;
+import com.sylphcorps.dto.ArticleDTO;
+import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.model.Article;
+import com.sylphcorps.model.Role;
+import com.sylphcorps.model.User;
+import com.sylphcorps.security.JwtUtils;
+import com.sylphcorps.security.UserDetailsImpl;
+import com.sylphcorps.serviceImpl.ArticleService;
+import com.sylphcorps.serviceImpl.UserService;
+import com.sylphcorps.serviceImpl.ViewCountBuffer;
+import com.sylphcorps.support.QueryBudgetTest;
+import com.sylphcorps.support.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+/**
+ * Database budgets for ArticleController, per request on a cold cache
+ * unless stated. Listings read one page (10 rows) plus a count; the corpus
+ * is larger than a page so a query reading the whole table shows up as
+ * rows over budget.
+ */
+class ArticleControllerQueryBudgetTest extends QueryBudgetTest {
+
+	private static final String AUTHOR = "budget_author";
+	private static final String CATEGORY = "budget";
+	private static final int ARTICLES = 25;
+	private static final int PAGE = 10;
+	// The token version check made by AuthTokenFilter on a cold cache
+	private static final int TOKEN_CHECK = 1;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ArticleService articleService;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Autowired
+	private ViewCountBuffer viewCountBuffer;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private String bearer;
+	private Article article;
+
+	@BeforeEach
+	void seed() {
+		User author = userService.findByUsername(AUTHOR).orElse(null);
+		if (author == null) {
+			SignupRequest request = new SignupRequest();
+			request.setUsername(AUTHOR);
+			request.setEmail("budget_author@example.com");
+			request.setPassword("secret123");
+			request.setFullName("Budget Author");
+			request.setRole(Role.AUTHOR);
+			author = userService.createUser(request);
+
+			List<ArticleDTO> articles = new ArrayList<>();
+			for (int i = 0; i < ARTICLES; i++) {
+				articles.add(article("Budget Story " + i));
+			}
+			User owner = author;
+			transactionTemplate.executeWithoutResult(status -> articleService.createArticles(articles, owner));
+		}
+		article = articleService.getArticleBySlug("budget-story-0");
+
+		UserDetailsImpl principal = UserDetailsImpl.build(author);
+		bearer = "Bearer " + jwtUtils.generateJwtToken(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+		coldCaches();
+	}
+
+	@Test
+	void articleBySlugIsOneSelect() throws Exception {
+		QueryCounter.Counts counts = measure(get("/api/articles/public/" + article.getSlug()), 200);
+
+		assertBudget(counts, 1, 1, 1);
+	}
+
+	@Test
+	void cachedArticleBySlugIsFree() throws Exception {
+		measure(get("/api/articles/public/" + article.getSlug()), 200);
+
+		QueryCounter.Counts counts = measure(get("/api/articles/public/" + article.getSlug()), 200);
+
+		assertBudget(counts, 0, 0, 0);
+	}
+
+	@Test
+	void revalidatingAnArticleReadsOnlyItsVersion() throws Exception {
+		String etag = mockMvc.perform(get("/api/articles/public/" + article.getSlug()))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		coldCaches();
+
+		QueryCounter.Counts counts = measure(get("/api/articles/public/" + article.getSlug())
+				.header(HttpHeaders.IF_NONE_MATCH, etag), 304);
+
+		assertBudget(counts, 1, 1, 0);
+	}
+
+	@Test
+	void viewIncrementHasNoSynchronousStatements() throws Exception {
+		// Readers load the article before its view is counted
+		measure(get("/api/articles/public/" + article.getSlug()), 200);
+
+		QueryCounter.Counts counts = measure(post("/api/articles/" + article.getSlug() + "/view"), 202);
+
+		assertBudget(counts, 0, 0, 0);
+	}
+
+	@Test
+	void viewIncrementOnAColdCacheOnlyResolvesTheSlug() throws Exception {
+		QueryCounter.Counts counts = measure(post("/api/articles/" + article.getSlug() + "/view"), 202);
+
+		// The id comes from a projection: no entity load, nothing cached
+		assertBudget(counts, 1, 1, 0);
+		assertNull(cacheManager.getCache(CacheConfig.ARTICLES_BY_SLUG).get(article.getSlug()));
+	}
+
+	@Test
+	void viewCountFlushKeepsTheCachedArticle() throws Exception {
+		// Write views left by other tests before the article is cached
+		viewCountBuffer.flush();
+		coldCaches();
+		measure(get("/api/articles/public/" + article.getSlug()), 200);
+		long before = articleService.getArticleBySlug(article.getSlug()).getViewCount();
+		mockMvc.perform(post("/api/articles/" + article.getSlug() + "/view"));
+		viewCountBuffer.flush();
+
+		QueryCounter.Counts counts = measure(get("/api/articles/public/" + article.getSlug()), 200);
+
+		assertBudget(counts, 0, 0, 0);
+		mockMvc.perform(get("/api/articles/public/" + article.getSlug()))
+				.andExpect(jsonPath("$.viewCount").value(before + 1));
+		// The overlay goes on a copy; the shared cached instance is untouched
+		Article cached = cacheManager.getCache(CacheConfig.ARTICLES_BY_SLUG).get(article.getSlug(), Article.class);
+		assertEquals(before, cached.getViewCount());
+	}
+
+	@Test
+	void homepageFeedsAreServedFromSnapshots() throws Exception {
+		for (String feed : List.of("featured", "trending", "latest", "categories")) {
+			assertBudget(measure(get("/api/articles/" + feed), 200), 0, 0, 0);
+		}
+	}
+
+	@Test
+	void pagedListingsReadOnePageAndACount() throws Exception {
+		assertBudget(measure(get("/api/articles/public"), 200), 2, PAGE + 1, 0);
+		assertBudget(measure(get("/api/articles/most-viewed").header(HttpHeaders.AUTHORIZATION, bearer), 200),
+				2 + TOKEN_CHECK, PAGE + 1 + TOKEN_CHECK, 0);
+		assertBudget(measure(get("/api/articles/category/" + CATEGORY).header(HttpHeaders.AUTHORIZATION, bearer), 200),
+				2 + TOKEN_CHECK, PAGE + 1 + TOKEN_CHECK, 0);
+	}
+
+	@Test
+	void unindexedSortIsRejectedBeforeQuerying() throws Exception {
+		QueryCounter.Counts counts = measure(get("/api/articles/public").param("sortBy", "content"), 400);
+
+		assertBudget(counts, 0, 0, 0);
+	}
+
+	@Test
+	void scrollListingsReadOnePageWithoutACount() throws Exception {
+		for (String listing : List.of("latest", "most-viewed", "featured", "trending", "category/" + CATEGORY)) {
+			assertBudget(measure(get("/api/articles/scroll/" + listing), 200), 1, PAGE + 1, 0);
+		}
+	}
+
+	@Test
+	void searchReadsOnePage() throws Exception {
+		QueryCounter.Counts counts = measure(get("/api/articles/search").param("q", "budget story"), 200);
+
+		assertBudget(counts, 2, PAGE + 1, 0);
+	}
+
+	@Test
+	void myArticlesLoadsTheAuthorAndOnePage() throws Exception {
+		QueryCounter.Counts counts = measure(get("/api/articles/my-articles").header(HttpHeaders.AUTHORIZATION, bearer), 200);
+
+		assertBudget(counts, 3 + TOKEN_CHECK, PAGE + 2 + TOKEN_CHECK, 1);
+	}
+
+	@Test
+	void createIsOneInsert() throws Exception {
+		QueryCounter.Counts counts = measure(post("/api/articles")
+				.header(HttpHeaders.AUTHORIZATION, bearer)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"Budget Breaking\",\"excerpt\":\"Excerpt\",\"content\":\"Content\",\"category\":\"budget\",\"published\":true}"), 200);
+
+		assertEquals(1, counts.getInserts(), counts::toString);
+		// Author lookups, the slug prefix query and the id sequence
+		assertBudget(counts, 4 + TOKEN_CHECK, 3 + TOKEN_CHECK, 2);
+	}
+
+	@Test
+	void updateIsOneUpdate() throws Exception {
+		QueryCounter.Counts counts = measure(put("/api/articles/" + article.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearer)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"Budget Story 0\",\"excerpt\":\"Excerpt\",\"content\":\"Edited\",\"category\":\"budget\",\"published\":true}"), 200);
+
+		assertEquals(1, counts.getUpdates(), counts::toString);
+		assertBudget(counts, 3 + TOKEN_CHECK, 2 + TOKEN_CHECK, 2);
+	}
+
+	@Test
+	void importIsOneInsertPerLine() throws Exception {
+		QueryCounter.Counts counts = measure(post("/api/articles/import")
+				.header(HttpHeaders.AUTHORIZATION, bearer)
+				.contentType("application/x-ndjson")
+				.content("{\"title\":\"Budget Import A\",\"excerpt\":\"e\",\"content\":\"c\",\"category\":\"budget\"}\n"
+						+ "{\"title\":\"Budget Import B\",\"excerpt\":\"e\",\"content\":\"c\",\"category\":\"budget\"}\n"), 200);
+
+		assertEquals(2, counts.getInserts(), counts::toString);
+		assertBudget(counts, 4 + TOKEN_CHECK, 2 + TOKEN_CHECK, 1);
+	}
+
+	private static ArticleDTO article(String title) {
+		ArticleDTO dto = new ArticleDTO();
+		dto.setTitle(title);
+		dto.setExcerpt("Excerpt");
+		dto.setContent("Content");
+		dto.setCategory(CATEGORY);
+		dto.setPublished(true);
+		dto.setFeatured(true);
+		dto.setTrending(true);
+		return dto;
+	}
+}
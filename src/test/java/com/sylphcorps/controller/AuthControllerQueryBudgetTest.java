@@ -0,0 +1,83 @@
+package com.sylphcorps.controller;
+
+import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.model.Role;
+import com.sylphcorps.serviceImpl.UserService;
+import com.sylphcorps.support.QueryBudgetTest;
+import com.sylphcorps.support.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Database budgets for AuthController, per request on a cold cache.
+ */
+class AuthControllerQueryBudgetTest extends QueryBudgetTest {
+
+	private static final String USERNAME = "budget_signin";
+	private static final String PASSWORD = "secret123";
+
+	@Autowired
+	private UserService userService;
+
+	@BeforeEach
+	void seed() {
+		if (userService.findByUsername(USERNAME).isEmpty()) {
+			SignupRequest request = new SignupRequest();
+			request.setUsername(USERNAME);
+			request.setEmail("budget_signin@example.com");
+			request.setPassword(PASSWORD);
+			request.setFullName("Budget Signin");
+			request.setRole(Role.AUTHOR);
+			userService.createUser(request);
+		}
+		coldCaches();
+	}
+
+	@Test
+	void signinLoadsTheUserOnce() throws Exception {
+		QueryCounter.Counts counts = measure(post("/api/auth/signin")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"), 200);
+
+		assertBudget(counts, 1, 1, 1);
+	}
+
+	@Test
+	void signupIsOneInsertWithoutExistenceProbes() throws Exception {
+		QueryCounter.Counts counts = measure(signup("budget_new", "budget_new@example.com"), 200);
+
+		assertEquals(0, counts.getSelects(), counts::toString);
+		assertBudget(counts, 1, 0, 0);
+	}
+
+	@Test
+	void duplicateSignupIsRejectedByTheInsert() throws Exception {
+		QueryCounter.Counts counts = measure(signup(USERNAME, "other_budget@example.com"), 400);
+
+		assertEquals(0, counts.getSelects(), counts::toString);
+		assertBudget(counts, 1, 0, 0);
+		perform(signup(USERNAME, "other_budget@example.com"))
+				.andExpect(jsonPath("$.message").value("Error: Username is already taken!"));
+	}
+
+	@Test
+	void duplicateEmailIsReportedAsSuch() throws Exception {
+		perform(signup("budget_other", "budget_signin@example.com"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Error: Email is already in use!"));
+	}
+
+	private static org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder signup(String username, String email) {
+		return post("/api/auth/signup")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + username + "\",\"email\":\"" + email
+						+ "\",\"password\":\"" + PASSWORD + "\",\"fullName\":\"Budget User\"}");
+	}
+}
@@ -0,0 +1,447 @@
+package com.sylphcorps.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sylphcorps.dto.ArticleDTO;
+import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.model.Article;
+import com.sylphcorps.model.Role;
+import com.sylphcorps.model.User;
+import com.sylphcorps.serviceImpl.ArticleService;
+import com.sylphcorps.serviceImpl.UserService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mixed read/write/auth workload over HTTP against the app on a
+ * random port and reports throughput and p50/p99/p999 per endpoint.
+ *
+ * Tagged "load", so it only runs with -Pload. Tunable with system
+ * properties, e.g.
+ * mvn -Pload test -Dload.concurrency=16 -Dload.duration-seconds=120
+ *
+ * Results are written as JSON to target/load-test/, one file per run plus
+ * latest.json, so two runs can be diffed.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ApiLoadTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(ApiLoadTest.class);
+
+	private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 8);
+	private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+	private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+	private static final int AUTHORS = Integer.getInteger("load.authors", 20);
+	private static final int ARTICLES = Integer.getInteger("load.articles", 2_000);
+	private static final long SEED = Long.getLong("load.seed", 42L);
+	private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+	private static final String PASSWORD = "load-test-password";
+	private static final Path RESULTS_DIR = Paths.get("target", "load-test");
+
+	// Few big sections and a long tail, like the production category mix
+	private static final String[] CATEGORIES = {
+			"politics", "world", "business", "technology", "sports", "culture",
+			"science", "health", "travel", "food", "opinion", "local"
+	};
+
+	private static final String[] WORDS = {
+			"council", "budget", "market", "election", "storm", "coast", "league", "final", "court",
+			"ruling", "energy", "prices", "school", "hospital", "research", "startup", "festival",
+			"museum", "transit", "housing", "climate", "report", "minister", "trade", "vaccine"
+	};
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ArticleService articleService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	private final List<String> authors = new ArrayList<>();
+	private final Map<String, List<Long>> articleIdsByAuthor = new ConcurrentHashMap<>();
+	private final Map<Long, ArticleDTO> seededArticles = new ConcurrentHashMap<>();
+	// Published articles only, so reads and views do not 404
+	private final List<String> slugs = new ArrayList<>();
+	private final Map<String, String> tokens = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	private volatile ConcurrentMap<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+	@BeforeAll
+	void seedCorpus() throws Exception {
+		Random random = new Random(SEED);
+		long start = System.nanoTime();
+		for (int i = 0; i < AUTHORS; i++) {
+			SignupRequest request = new SignupRequest();
+			request.setUsername("load_author_" + i);
+			request.setEmail("load_author_" + i + "@example.com");
+			request.setPassword(PASSWORD);
+			request.setFullName("Load Author " + i);
+			request.setRole(Role.AUTHOR);
+			userService.createUser(request);
+			authors.add(request.getUsername());
+		}
+
+		int perAuthor = Math.max(1, ARTICLES / AUTHORS);
+		for (String username : authors) {
+			User author = userService.findByUsername(username).orElseThrow();
+			List<ArticleDTO> batch = new ArrayList<>(perAuthor);
+			for (int i = 0; i < perAuthor; i++) {
+				batch.add(article(random));
+			}
+			List<Article> saved = transactionTemplate.execute(status -> articleService.createArticles(batch, author));
+			List<Long> ids = new ArrayList<>(saved.size());
+			for (int i = 0; i < saved.size(); i++) {
+				Article article = saved.get(i);
+				ids.add(article.getId());
+				seededArticles.put(article.getId(), batch.get(i));
+				if (article.isPublished()) {
+					slugs.add(article.getSlug());
+				}
+			}
+			articleIdsByAuthor.put(username, ids);
+		}
+
+		for (String username : authors) {
+			HttpResponse<String> response = send(signinRequest(username));
+			tokens.put(username, objectMapper.readTree(response.body()).get("token").asText());
+		}
+		logger.info("Seeded {} authors and {} published articles in {} ms", authors.size(), slugs.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	@Test
+	void mixedWorkload() throws Exception {
+		run(WARMUP_SECONDS);
+		stats = new ConcurrentHashMap<>();
+
+		long start = System.nanoTime();
+		run(DURATION_SECONDS);
+		double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+		Map<String, Object> report = report(elapsedSeconds);
+		Path file = write(report);
+		logger.info("Load test results written to {}", file.toAbsolutePath());
+
+		long requests = 0;
+		long errors = 0;
+		for (EndpointStats endpoint : stats.values()) {
+			requests += endpoint.latency.getTotalCount();
+			errors += endpoint.errors.get();
+		}
+		assertTrue(requests > 0, "No requests completed");
+		assertTrue(errors <= requests * MAX_ERROR_RATE,
+				"Error rate " + errors + "/" + requests + " is above " + MAX_ERROR_RATE + ", see " + file);
+	}
+
+	// Closed loop: each worker sends its next request as soon as the previous one completes
+	private void run(int seconds) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int w = 0; w < CONCURRENCY; w++) {
+				SplittableRandom random = new SplittableRandom(SEED * 31 + w + sequence.incrementAndGet());
+				futures.add(workers.submit(() -> {
+					while (System.nanoTime() < deadline) {
+						step(random);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			workers.shutdownNow();
+		}
+	}
+
+	private void step(SplittableRandom random) throws Exception {
+		int roll = random.nextInt(100);
+		String slug = popularSlug(random);
+		String author = authors.get(random.nextInt(authors.size()));
+		if (roll < 28) {
+			call("GET /api/articles/public/{slug}", get("/api/articles/public/" + slug));
+		} else if (roll < 38) {
+			call("GET /api/articles/latest", get("/api/articles/latest?page=" + random.nextInt(3)));
+		} else if (roll < 43) {
+			call("GET /api/articles/trending", get("/api/articles/trending"));
+		} else if (roll < 48) {
+			call("GET /api/articles/featured", get("/api/articles/featured"));
+		} else if (roll < 54) {
+			call("GET /api/articles/public", get("/api/articles/public?page=" + random.nextInt(20)));
+		} else if (roll < 61) {
+			// Not a public endpoint
+			call("GET /api/articles/category/{category}", request("/api/articles/category/" + category(random)
+					+ "?page=" + random.nextInt(5), author).GET().build());
+		} else if (roll < 65) {
+			call("GET /api/articles/scroll/latest", get("/api/articles/scroll/latest"));
+		} else if (roll < 70) {
+			String q = URLEncoder.encode(WORDS[random.nextInt(WORDS.length)], StandardCharsets.UTF_8);
+			call("GET /api/articles/search", get("/api/articles/search?q=" + q));
+		} else if (roll < 72) {
+			call("GET /api/articles/categories", get("/api/articles/categories"));
+		} else if (roll < 84) {
+			call("POST /api/articles/{slug}/view", request("/api/articles/" + slug + "/view", null)
+					.POST(HttpRequest.BodyPublishers.noBody()).build());
+		} else if (roll < 88) {
+			call("POST /api/auth/signin", signinRequest(author));
+		} else if (roll < 92) {
+			ArticleDTO dto = article(new Random(random.nextLong()));
+			call("POST /api/articles", request("/api/articles", author)
+					.POST(json(dto)).build());
+		} else if (roll < 95) {
+			List<Long> ids = articleIdsByAuthor.get(author);
+			Long id = ids.get(random.nextInt(ids.size()));
+			// Same title and flags, so the slug and the published set stay as seeded
+			ArticleDTO seeded = seededArticles.get(id);
+			ArticleDTO dto = new ArticleDTO();
+			dto.setTitle(seeded.getTitle());
+			dto.setExcerpt(seeded.getExcerpt());
+			dto.setContent(seeded.getContent() + " Updated " + sequence.incrementAndGet() + ".");
+			dto.setCategory(seeded.getCategory());
+			dto.setPublished(seeded.isPublished());
+			dto.setFeatured(seeded.isFeatured());
+			dto.setTrending(seeded.isTrending());
+			call("PUT /api/articles/{id}", request("/api/articles/" + id, author)
+					.PUT(json(dto)).build());
+		} else if (roll < 98) {
+			call("GET /api/articles/my-articles", request("/api/articles/my-articles", author).GET().build());
+		} else {
+			long n = sequence.incrementAndGet();
+			SignupRequest signup = new SignupRequest();
+			signup.setUsername("load_reader_" + n);
+			signup.setEmail(signup.getUsername() + "@example.com");
+			signup.setPassword(PASSWORD);
+			signup.setFullName("Load Reader " + n);
+			call("POST /api/auth/signup", request("/api/auth/signup", null).POST(json(signup)).build());
+		}
+	}
+
+	private void call(String endpoint, HttpRequest request) {
+		EndpointStats endpointStats = stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+		long start = System.nanoTime();
+		int status;
+		try {
+			status = send(request).statusCode();
+		} catch (Exception e) {
+			status = 0;
+		}
+		endpointStats.latency.recordValue(Math.max(1, (System.nanoTime() - start) / 1_000));
+		endpointStats.statuses.incrementAndGet(Math.min(status / 100, 5));
+		if (status < 200 || status >= 400) {
+			endpointStats.errors.incrementAndGet();
+		}
+	}
+
+	private HttpResponse<String> send(HttpRequest request) throws Exception {
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpRequest get(String path) {
+		return request(path, null).GET().build();
+	}
+
+	private HttpRequest signinRequest(String username) {
+		Map<String, String> body = Map.of("username", username, "password", PASSWORD);
+		return request("/api/auth/signin", null).POST(json(body)).build();
+	}
+
+	private HttpRequest.Builder request(String path, String asUser) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json")
+				.header("Accept-Encoding", "gzip");
+		if (asUser != null) {
+			builder.header("Authorization", "Bearer " + tokens.get(asUser));
+		}
+		return builder;
+	}
+
+	private HttpRequest.BodyPublisher json(Object body) {
+		try {
+			return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// Roughly Zipfian: a few articles take most of the reads
+	private String popularSlug(SplittableRandom random) {
+		double u = random.nextDouble();
+		int index = (int) (slugs.size() * u * u * u);
+		return slugs.get(Math.min(index, slugs.size() - 1));
+	}
+
+	private static String category(SplittableRandom random) {
+		double u = random.nextDouble();
+		return CATEGORIES[Math.min((int) (CATEGORIES.length * u * u), CATEGORIES.length - 1)];
+	}
+
+	private static ArticleDTO article(Random random) {
+		ArticleDTO dto = new ArticleDTO();
+		dto.setTitle(words(random, 4 + random.nextInt(8)));
+		dto.setExcerpt(words(random, 20 + random.nextInt(20)));
+		// Log-normal body length, median around 4 KB
+		int contentChars = (int) Math.min(60_000, Math.exp(Math.log(4_000) + 0.6 * random.nextGaussian()));
+		StringBuilder content = new StringBuilder(contentChars + 16);
+		while (content.length() < contentChars) {
+			content.append(words(random, 12)).append(". ");
+		}
+		dto.setContent(content.toString());
+		double u = random.nextDouble();
+		dto.setCategory(CATEGORIES[Math.min((int) (CATEGORIES.length * u * u), CATEGORIES.length - 1)]);
+		dto.setPublished(random.nextDouble() < 0.9);
+		dto.setFeatured(random.nextDouble() < 0.05);
+		dto.setTrending(random.nextDouble() < 0.08);
+		return dto;
+	}
+
+	private static String words(Random random, int count) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				text.append(' ');
+			}
+			text.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return text.toString();
+	}
+
+	private Map<String, Object> report(double elapsedSeconds) {
+		Map<String, Object> config = new LinkedHashMap<>();
+		config.put("concurrency", CONCURRENCY);
+		config.put("warmupSeconds", WARMUP_SECONDS);
+		config.put("durationSeconds", DURATION_SECONDS);
+		config.put("authors", AUTHORS);
+		config.put("articles", ARTICLES);
+		config.put("publishedArticles", slugs.size());
+		config.put("seed", SEED);
+		config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+		Map<String, Object> endpoints = new LinkedHashMap<>();
+		long totalRequests = 0;
+		long totalErrors = 0;
+		for (String endpoint : new TreeSet<>(stats.keySet())) {
+			EndpointStats endpointStats = stats.get(endpoint);
+			Histogram latency = endpointStats.latency;
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("requests", latency.getTotalCount());
+			row.put("errors", endpointStats.errors.get());
+			row.put("throughputPerSecond", round(latency.getTotalCount() / elapsedSeconds));
+			row.put("p50Ms", millis(latency.getValueAtPercentile(50)));
+			row.put("p99Ms", millis(latency.getValueAtPercentile(99)));
+			row.put("p999Ms", millis(latency.getValueAtPercentile(99.9)));
+			row.put("maxMs", millis(latency.getMaxValue()));
+			Map<String, Long> statuses = new LinkedHashMap<>();
+			for (int i = 0; i < endpointStats.statuses.length(); i++) {
+				if (endpointStats.statuses.get(i) > 0) {
+					statuses.put(i == 0 ? "failed" : i + "xx", endpointStats.statuses.get(i));
+				}
+			}
+			row.put("statuses", statuses);
+			endpoints.put(endpoint, row);
+			totalRequests += latency.getTotalCount();
+			totalErrors += endpointStats.errors.get();
+			logger.info(String.format("%-40s %8d req %8.1f/s  p50 %8.2f ms  p99 %8.2f ms  p999 %8.2f ms  errors %d",
+					endpoint, latency.getTotalCount(), latency.getTotalCount() / elapsedSeconds,
+					millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+					millis(latency.getValueAtPercentile(99.9)), endpointStats.errors.get()));
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("finishedAt", LocalDateTime.now().toString());
+		report.put("config", config);
+		report.put("elapsedSeconds", round(elapsedSeconds));
+		report.put("requests", totalRequests);
+		report.put("errors", totalErrors);
+		report.put("throughputPerSecond", round(totalRequests / elapsedSeconds));
+		report.put("endpoints", endpoints);
+		return report;
+	}
+
+	private Path write(Map<String, Object> report) throws Exception {
+		Files.createDirectories(RESULTS_DIR);
+		byte[] json = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsBytes(report);
+		String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+		Path file = RESULTS_DIR.resolve("load-" + stamp + ".json");
+		Files.write(file, json);
+		Files.write(RESULTS_DIR.resolve("latest.json"), json);
+		return file;
+	}
+
+	private static double millis(long micros) {
+		return round(micros / 1_000.0);
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+
+	private static final class EndpointStats {
+		// Microseconds, up to a minute at 3 significant digits
+		private final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+		// Counts by status class: failed to connect, 1xx .. 5xx
+		private final AtomicLongArray statuses = new AtomicLongArray(6);
+		private final AtomicLong errors = new AtomicLong();
+	}
+}
@@ -0,0 +1,153 @@
+package com.sylphcorps.repository;
+
+import com.sylphcorps.model.Article;
+import com.sylphcorps.model.User;
+import com.sylphcorps.serviceImpl.ArticleService;
+import com.sylphcorps.serviceImpl.FeedSnapshotService;
+import com.sylphcorps.serviceImpl.FeedSnapshotService.Feed;
+import com.sylphcorps.support.QueryCounter;
+import com.sylphcorps.support.QueryCounterConfiguration;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs each listing query, then EXPLAINs the SQL Hibernate sent and checks
+ * that H2 reads one of the expected indexes rather than the table.
+ *
+ * H2 picks an index by the WHERE clause alone, so listings that share the
+ * is_published filter but sort differently (published_at, view_count) may
+ * read either of those indexes here; PostgreSQL also weighs the ORDER BY
+ * and reads the one that returns rows in order.
+ */
+// Scheduled jobs are pushed out so only the listing under test is captured
+@SpringBootTest(properties = {
+		"app.views.flush-interval-ms=3600000",
+		"app.feeds.check-interval-ms=3600000",
+		"app.trending.refresh-interval-ms=3600000",
+		"app.stats.reconcile-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@Import(QueryCounterConfiguration.class)
+class ArticleIndexPlanTest {
+
+	private static final Pageable PAGE = PageRequest.of(0, 10);
+	private static final String[] PUBLISHED = {Article.IDX_PUBLISHED_AT, Article.IDX_VIEW_COUNT};
+	// H2 indexes each foreign key itself (<constraint>_INDEX_<n>) and may read that
+	// one; PostgreSQL creates no such index and reads idx_articles_author
+	private static final String H2_FOREIGN_KEY_INDEX = "_INDEX_";
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private QueryCounter queryCounter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private FeedSnapshotService feedSnapshotService;
+
+	// The startup feed build runs on the scheduler thread; let it finish so
+	// its queries are not counted against the test
+	@BeforeEach
+	void awaitFeedSnapshots() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (feedSnapshotService.get(Feed.CATEGORIES).isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	void publishedListingsUseThePublishedIndexes() {
+		assertIndexScans(() -> articleRepository.findPublishedSummaries(
+				PageRequest.of(0, 10, Sort.by("publishedAt", "id").descending())), PUBLISHED);
+		assertIndexScans(() -> articleRepository.findPublishedSummaries(
+				PageRequest.of(0, 10, Sort.by("viewCount", "id").ascending())), PUBLISHED);
+		assertIndexScans(() -> articleRepository.findLatestSummaries(PAGE), PUBLISHED);
+		assertIndexScans(() -> articleRepository.findMostViewedSummaries(PAGE), PUBLISHED);
+		// PostgreSQL reads the partial feed indexes instead
+		Pageable byPublishedAt = PageRequest.of(0, 10, ArticleService.NEWEST_FIRST);
+		assertIndexScans(() -> articleRepository.findFeaturedSummaries(byPublishedAt), PUBLISHED);
+		assertIndexScans(() -> articleRepository.findTrendingSummaries(byPublishedAt), PUBLISHED);
+	}
+
+	@Test
+	void categoryListingsUseTheCategoryIndex() {
+		assertIndexScans(() -> articleRepository.findSummariesByCategory("news",
+				PageRequest.of(0, 10, ArticleService.NEWEST_FIRST)), Article.IDX_CATEGORY);
+		assertIndexScans(() -> articleRepository.findByCategoryBefore("news", LocalDateTime.now(), Long.MAX_VALUE, PAGE),
+				Article.IDX_CATEGORY);
+		assertIndexScans(() -> articleRepository.findDistinctCategories(), Article.IDX_CATEGORY);
+	}
+
+	@Test
+	void keysetListingsUseThePublishedIndexes() {
+		assertIndexScans(() -> articleRepository.findPublishedBefore(LocalDateTime.now(), Long.MAX_VALUE, PAGE), PUBLISHED);
+		assertIndexScans(() -> articleRepository.findMostViewedBefore(Long.MAX_VALUE, Long.MAX_VALUE, PAGE), PUBLISHED);
+	}
+
+	@Test
+	void authorListingUsesTheAuthorIndex() {
+		User author = userRepository.getReferenceById(1L);
+		assertIndexScans(() -> articleRepository.findSummariesByAuthor(author,
+				PageRequest.of(0, 10, ArticleService.NEWEST_CREATED_FIRST)), Article.IDX_AUTHOR, H2_FOREIGN_KEY_INDEX);
+	}
+
+	private void assertIndexScans(Runnable query, String... indexes) {
+		// Cacheable listings must reach the database to be explained
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+		queryCounter.reset();
+		query.run();
+		QueryCounter.Counts counts = queryCounter.counts();
+		assertFalse(counts.getSql().isEmpty(), "The query was not sent to the database");
+		for (String sql : counts.getSql()) {
+			String plan = explain(sql);
+			assertTrue(Arrays.stream(indexes).anyMatch(plan::contains),
+					() -> "Expected one of " + Arrays.toString(indexes) + " in the plan of " + sql + "\n" + plan);
+			assertFalse(plan.contains("tableScan"), () -> "Table scan in the plan of " + sql + "\n" + plan);
+		}
+	}
+
+	private String explain(String sql) {
+		return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+			try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+				for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+					statement.setObject(i, null);
+				}
+				try (ResultSet plan = statement.executeQuery()) {
+					StringBuilder text = new StringBuilder();
+					while (plan.next()) {
+						text.append(plan.getString(1)).append('\n');
+					}
+					return text.toString();
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,66 @@
+package com.sylphcorps.search;
+
+import com.sylphcorps.model.Article;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemorySearchBackendTest {
+
+	private final InMemorySearchBackend backend = new InMemorySearchBackend();
+
+	@Test
+	void ranksTitleMatchesAboveContentMatches() {
+		backend.index(article(1L, "Weather report", "Rain expected", "Elections are coming up", true));
+		backend.index(article(2L, "Elections announced", "Dates confirmed", "The vote is in May", true));
+
+		Page<Long> result = backend.search("election", PageRequest.of(0, 10));
+
+		assertEquals(List.of(2L, 1L), result.getContent());
+		assertEquals(2, result.getTotalElements());
+	}
+
+	@Test
+	void matchesStemmedFormsAndRequiresEveryTerm() {
+		backend.index(article(1L, "Council publishes budget", "Spending plans", "Details inside", true));
+		backend.index(article(2L, "Budget talks stall", "No agreement", "Talks continue", true));
+
+		assertEquals(List.of(1L), backend.search("published budgets", PageRequest.of(0, 10)).getContent());
+	}
+
+	@Test
+	void dropsUnpublishedAndRemovedArticles() {
+		backend.index(article(1L, "Harbour reopens", "Ships return", "Trade resumes", true));
+		backend.index(article(2L, "Harbour closed", "Storm damage", "Repairs under way", true));
+
+		backend.index(article(1L, "Harbour reopens", "Ships return", "Trade resumes", false));
+		backend.remove(2L);
+
+		assertTrue(backend.search("harbour", PageRequest.of(0, 10)).isEmpty());
+	}
+
+	@Test
+	void pagesByRelevance() {
+		for (long id = 1; id <= 5; id++) {
+			backend.index(article(id, "Market update " + id, "Stocks", "market ".repeat((int) id), true));
+		}
+
+		Page<Long> second = backend.search("market", PageRequest.of(1, 2));
+
+		assertEquals(2, second.getNumberOfElements());
+		assertEquals(5, second.getTotalElements());
+		assertEquals(List.of(3L, 2L), second.getContent());
+	}
+
+	private static Article article(Long id, String title, String excerpt, String content, boolean published) {
+		Article article = new Article(title, "slug-" + id, excerpt, content, "news", null);
+		article.setId(id);
+		article.setPublished(published);
+		return article;
+	}
+}
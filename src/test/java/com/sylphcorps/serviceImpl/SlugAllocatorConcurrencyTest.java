@@ -0,0 +1,105 @@
+package com.sylphcorps.serviceImpl;
+
+import com.sylphcorps.dto.ArticleDTO;
+import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.model.Article;
+import com.sylphcorps.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SlugAllocatorConcurrencyTest {
+
+	private static final String AUTHOR = "slug_hammer";
+
+	@Autowired
+	private ArticleService articleService;
+
+	@Autowired
+	private UserService userService;
+
+	@BeforeEach
+	void createAuthor() {
+		if (userService.findByUsername(AUTHOR).isEmpty()) {
+			SignupRequest request = new SignupRequest();
+			request.setUsername(AUTHOR);
+			request.setEmail("slug_hammer@example.com");
+			request.setPassword("secret123");
+			request.setFullName("Slug Hammer");
+			request.setRole(Role.AUTHOR);
+			userService.createUser(request);
+		}
+	}
+
+	@Test
+	void concurrentCreatesWithTheSameTitleGetDistinctSlugs() throws Exception {
+		int threads = 8;
+		int perThread = 10;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<List<String>>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < threads; t++) {
+				Callable<List<String>> worker = () -> {
+					start.await();
+					List<String> slugs = new ArrayList<>();
+					for (int i = 0; i < perThread; i++) {
+						slugs.add(articleService.createArticle(article("Breaking: Storm Hits Coast!"), AUTHOR).getSlug());
+					}
+					return slugs;
+				};
+				futures.add(executor.submit(worker));
+			}
+			start.countDown();
+
+			Set<String> slugs = new HashSet<>();
+			for (Future<List<String>> future : futures) {
+				slugs.addAll(future.get());
+			}
+
+			assertEquals(threads * perThread, slugs.size());
+			assertTrue(slugs.contains("breaking-storm-hits-coast"));
+			assertTrue(slugs.contains("breaking-storm-hits-coast-" + (threads * perThread - 1)));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void updateKeepsSlugWhenTitleStillMapsToIt() {
+		Article created = articleService.createArticle(article("Council Budget Approved"), AUTHOR);
+
+		ArticleDTO edit = article("Council budget approved");
+		edit.setContent("Corrected figures");
+		Article updated = articleService.updateArticle(created.getId(), edit, AUTHOR);
+
+		assertEquals(created.getSlug(), updated.getSlug());
+	}
+
+	private static ArticleDTO article(String title) {
+		ArticleDTO dto = new ArticleDTO();
+		dto.setTitle(title);
+		dto.setExcerpt("Excerpt");
+		dto.setContent("Content");
+		dto.setCategory("news");
+		dto.setPublished(true);
+		return dto;
+	}
+}
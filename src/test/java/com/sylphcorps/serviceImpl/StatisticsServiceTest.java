@@ -0,0 +1,64 @@
+package com.sylphcorps.serviceImpl;
+
+import com.sylphcorps.dto.ArticleDTO;
+import com.sylphcorps.dto.SignupRequest;
+import com.sylphcorps.model.Role;
+import com.sylphcorps.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StatisticsServiceTest {
+
+	@Autowired
+	private StatisticsService statisticsService;
+
+	@Autowired
+	private ArticleService articleService;
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void deletingAnAuthorTakesTheirArticlesOutOfTheCounts() {
+		SignupRequest request = new SignupRequest();
+		request.setUsername("stats_leaving");
+		request.setEmail("stats_leaving@example.com");
+		request.setPassword("secret123");
+		request.setFullName("Stats Leaving");
+		request.setRole(Role.AUTHOR);
+		User author = userService.createUser(request);
+		articleService.createArticle(article("Stats Draft", false), author.getUsername());
+		articleService.createArticle(article("Stats Published", true), author.getUsername());
+
+		long total = statisticsService.getTotalArticleCount();
+		long published = statisticsService.getPublishedArticleCount();
+		long inCategory = statisticsService.getPublishedArticleCountByCategory("stats");
+		long users = statisticsService.getUserCount();
+		assertEquals(2, statisticsService.getArticleCountByAuthor(author.getId()));
+
+		userService.deleteUser(author.getId());
+
+		assertEquals(0, statisticsService.getArticleCountByAuthor(author.getId()));
+		assertEquals(0, statisticsService.getPublishedArticleCountByAuthor(author.getId()));
+		assertEquals(total - 2, statisticsService.getTotalArticleCount());
+		assertEquals(published - 1, statisticsService.getPublishedArticleCount());
+		assertEquals(inCategory - 1, statisticsService.getPublishedArticleCountByCategory("stats"));
+		assertEquals(users - 1, statisticsService.getUserCount());
+	}
+
+	private static ArticleDTO article(String title, boolean published) {
+		ArticleDTO dto = new ArticleDTO();
+		dto.setTitle(title);
+		dto.setExcerpt("Excerpt");
+		dto.setContent("Content");
+		dto.setCategory("stats");
+		dto.setPublished(published);
+		return dto;
+	}
+}
@@ -0,0 +1,106 @@
+package com.sylphcorps.support;
+
+import com.sylphcorps.serviceImpl.FeedSnapshotService;
+import com.sylphcorps.serviceImpl.FeedSnapshotService.Feed;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+/**
+ * Base for tests that hold endpoints to a database budget: the number of
+ * statements, rows read and entities loaded per request.
+ *
+ * Scheduled jobs (view flush, feed refresh, trending, statistics) are
+ * pushed out of the test's way so only the request itself is counted.
+ * Budgets are asserted on a cold cache (coldCaches) unless a test is about
+ * the cached path.
+ */
+@SpringBootTest(properties = {
+		"app.views.flush-interval-ms=3600000",
+		"app.feeds.check-interval-ms=3600000",
+		"app.trending.refresh-interval-ms=3600000",
+		"app.stats.reconcile-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryCounterConfiguration.class)
+public abstract class QueryBudgetTest {
+
+	@Autowired
+	protected MockMvc mockMvc;
+
+	@Autowired
+	protected QueryCounter queryCounter;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private FeedSnapshotService feedSnapshotService;
+
+	// The startup feed build runs on the scheduler thread; let it finish so
+	// its queries are not counted against the test
+	@BeforeEach
+	void awaitFeedSnapshots() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (feedSnapshotService.get(Feed.CATEGORIES).isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	protected void coldCaches() {
+		for (String name : cacheManager.getCacheNames()) {
+			cacheManager.getCache(name).clear();
+		}
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAll();
+		sessionFactory.getCache().evictQueryRegions();
+	}
+
+	/**
+	 * Performs the request, completing async handling, and returns what it
+	 * cost the database.
+	 */
+	protected QueryCounter.Counts measure(RequestBuilder request, int expectedStatus) throws Exception {
+		queryCounter.reset();
+		MvcResult result = perform(request).andReturn();
+		assertEquals(expectedStatus, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+		return queryCounter.counts();
+	}
+
+	/**
+	 * Performs the request, completing async handling.
+	 */
+	protected ResultActions perform(RequestBuilder request) throws Exception {
+		ResultActions actions = mockMvc.perform(request);
+		MvcResult result = actions.andReturn();
+		if (result.getRequest().isAsyncStarted()) {
+			return mockMvc.perform(asyncDispatch(result));
+		}
+		return actions;
+	}
+
+	protected static void assertBudget(QueryCounter.Counts counts, long statements, long rows, long entityLoads) {
+		assertTrue(counts.getStatements() <= statements, () -> "Over the budget of " + statements + " statements: " + counts);
+		assertTrue(counts.getRows() <= rows, () -> "Over the budget of " + rows + " rows: " + counts);
+		assertTrue(counts.getEntityLoads() <= entityLoads, () -> "Over the budget of " + entityLoads + " entity loads: " + counts);
+	}
+}
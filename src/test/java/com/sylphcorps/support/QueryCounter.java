@@ -0,0 +1,166 @@
+package com.sylphcorps.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.hibernate.stat.Statistics;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Counts what reaches the database between reset() and counts(): JDBC
+ * statements by type, rows read from result sets, and Hibernate entity
+ * loads and fetches.
+ *
+ * Statements from every thread are counted, so work handed to a pool (the
+ * password hashing one, for sign-in) is included; scheduled jobs must be
+ * kept quiet by the test. Registered by QueryCounterConfiguration.
+ */
+public class QueryCounter implements QueryExecutionListener, MethodExecutionListener {
+
+	// Resolved on use: the session factory is built on top of the proxied DataSource
+	private final Supplier<Statistics> statistics;
+
+	private final AtomicLong selects = new AtomicLong();
+	private final AtomicLong inserts = new AtomicLong();
+	private final AtomicLong updates = new AtomicLong();
+	private final AtomicLong deletes = new AtomicLong();
+	private final AtomicLong other = new AtomicLong();
+	private final AtomicLong rows = new AtomicLong();
+	private final Queue<String> sql = new ConcurrentLinkedQueue<>();
+
+	private long entityLoadsAtReset;
+	private long entityFetchesAtReset;
+
+	public QueryCounter(Supplier<Statistics> statistics) {
+		this.statistics = statistics;
+	}
+
+	public void reset() {
+		selects.set(0);
+		inserts.set(0);
+		updates.set(0);
+		deletes.set(0);
+		other.set(0);
+		rows.set(0);
+		sql.clear();
+		entityLoadsAtReset = statistics.get().getEntityLoadCount();
+		entityFetchesAtReset = statistics.get().getEntityFetchCount();
+	}
+
+	public Counts counts() {
+		return new Counts(selects.get(), inserts.get(), updates.get(), deletes.get(), other.get(), rows.get(),
+				statistics.get().getEntityLoadCount() - entityLoadsAtReset,
+				statistics.get().getEntityFetchCount() - entityFetchesAtReset,
+				List.copyOf(sql));
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	// A prepared statement batch counts once per parameter set, as that is what the database runs
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		for (QueryInfo queryInfo : queryInfoList) {
+			int executions = execInfo.isBatch() ? Math.max(1, queryInfo.getParametersList().size()) : 1;
+			sql.add(queryInfo.getQuery());
+			switch (QueryUtils.getQueryType(queryInfo.getQuery())) {
+				case SELECT:
+					selects.addAndGet(executions);
+					break;
+				case INSERT:
+					inserts.addAndGet(executions);
+					break;
+				case UPDATE:
+					updates.addAndGet(executions);
+					break;
+				case DELETE:
+					deletes.addAndGet(executions);
+					break;
+				default:
+					other.addAndGet(executions);
+			}
+		}
+	}
+
+	@Override
+	public void beforeMethod(MethodExecutionContext executionContext) {
+	}
+
+	@Override
+	public void afterMethod(MethodExecutionContext executionContext) {
+		if (executionContext.getTarget() instanceof ResultSet
+				&& "next".equals(executionContext.getMethod().getName())
+				&& Boolean.TRUE.equals(executionContext.getResult())) {
+			rows.incrementAndGet();
+		}
+	}
+
+	public static final class Counts {
+		private final long selects;
+		private final long inserts;
+		private final long updates;
+		private final long deletes;
+		private final long other;
+		private final long rows;
+		private final long entityLoads;
+		private final long entityFetches;
+		private final List<String> sql;
+
+		private Counts(long selects, long inserts, long updates, long deletes, long other, long rows,
+					   long entityLoads, long entityFetches, List<String> sql) {
+			this.selects = selects;
+			this.inserts = inserts;
+			this.updates = updates;
+			this.deletes = deletes;
+			this.other = other;
+			this.rows = rows;
+			this.entityLoads = entityLoads;
+			this.entityFetches = entityFetches;
+			this.sql = sql;
+		}
+
+		public long getStatements() { return selects + inserts + updates + deletes + other; }
+
+		public long getSelects() { return selects; }
+
+		public long getInserts() { return inserts; }
+
+		public long getUpdates() { return updates; }
+
+		public long getDeletes() { return deletes; }
+
+		public long getRows() { return rows; }
+
+		public long getEntityLoads() { return entityLoads; }
+
+		public long getEntityFetches() { return entityFetches; }
+
+		public List<String> getSql() { return sql; }
+
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder()
+					.append(getStatements()).append(" statements (")
+					.append(selects).append(" select, ").append(inserts).append(" insert, ")
+					.append(updates).append(" update, ").append(deletes).append(" delete, ")
+					.append(other).append(" other), ")
+					.append(rows).append(" rows, ")
+					.append(entityLoads).append(" entity loads, ")
+					.append(entityFetches).append(" entity fetches");
+			for (String statement : sql) {
+				text.append("\n  ").append(statement);
+			}
+			return text.toString();
+		}
+	}
+}
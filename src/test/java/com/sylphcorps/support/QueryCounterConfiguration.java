@@ -0,0 +1,43 @@
+package com.sylphcorps.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * Routes every DataSource through datasource-proxy into a QueryCounter.
+ * Import it in a test and autowire the QueryCounter.
+ */
+@TestConfiguration
+public class QueryCounterConfiguration {
+
+	@Bean
+	public static QueryCounter queryCounter(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+		return new QueryCounter(() -> entityManagerFactory.getObject().unwrap(SessionFactory.class).getStatistics());
+	}
+
+	// Static so it is registered before the DataSource is created
+	@Bean
+	public static BeanPostProcessor queryCountingDataSourcePostProcessor(ObjectProvider<QueryCounter> queryCounter) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource)) {
+					return bean;
+				}
+				QueryCounter counter = queryCounter.getObject();
+				return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+						.listener(counter)
+						.methodListener(counter)
+						.proxyResultSet()
+						.build();
+			}
+		};
+	}
+}